@@ -51,6 +51,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Secured endpoints
                         .requestMatchers(HttpMethod.POST, "/api/products/**").hasAnyRole("CLIENT","OPERATOR")
                         .requestMatchers(HttpMethod.PUT, "/api/products/**").hasAnyRole("CLIENT","OPERATOR")
@@ -1,8 +1,15 @@
 package com.store.controller;
 
+import com.store.dto.BulkOrderResultDTO;
+import com.store.dto.BulkStatusUpdateDTO;
+import com.store.dto.BulkStatusUpdateResultDTO;
+import com.store.dto.CursorPageDTO;
 import com.store.dto.OrderDTO;
 import com.store.dto.OrderFilterDTO;
 import com.store.entity.Order.OrderStatus;
+import com.store.service.OrderBulkIntakeService;
+import com.store.service.OrderExportService;
+import com.store.service.OrderIdempotencyService;
 import com.store.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,11 +18,18 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -24,6 +38,9 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderBulkIntakeService orderBulkIntakeService;
+    private final OrderExportService orderExportService;
 
     @GetMapping
     @Operation(summary = "Get orders with filtering",
@@ -35,10 +52,52 @@ public class OrderController {
         return ResponseEntity.ok(orderService.findOrders(filterDTO, pageable));
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll orders with a cursor",
+            description = "Keyset pagination over the same filters as GET /api/orders. Pass the returned nextCursor as 'after' to get the next page; no total count is computed.")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> scrollOrders(
+            @Valid OrderFilterDTO filterDTO,
+            @Parameter(description = "Cursor returned by the previous page (optional)") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, up to 100") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Sort property: id, createdAt or totalAmount") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") Sort.Direction sortDirection
+    ) {
+        return ResponseEntity.ok(orderService.scrollOrders(filterDTO, after, size, sortBy, sortDirection));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "Export orders",
+            description = "Streams every order matching the same filters as GET /api/orders, ordered by id, as CSV or NDJSON. There is no pagination; the download starts right away.")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Valid OrderFilterDTO filterDTO,
+            @Parameter(description = "CSV or NDJSON") @RequestParam(defaultValue = "CSV") OrderExportService.Format format
+    ) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format.fileExtension() + "\"")
+                .body(orderExportService.export(filterDTO, format));
+    }
+
     @PostMapping
-    @Operation(summary = "Create order", description = "Creates a new order")
-    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO) {
-        return new ResponseEntity<>(orderService.createOrder(orderDTO), HttpStatus.CREATED);
+    @Operation(summary = "Create order",
+            description = "Creates a new order. Retries sent with the same Idempotency-Key return the original order instead of creating another one.")
+    public ResponseEntity<OrderDTO> createOrder(
+            @Parameter(description = "Client-generated key identifying this order attempt (optional, up to 100 characters)")
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody OrderDTO orderDTO
+    ) {
+        OrderIdempotencyService.Result result = orderIdempotencyService.createOrder(idempotencyKey, orderDTO);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.order());
+    }
+
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Create orders in bulk",
+            description = "Reads a stream of orders (one JSON object per line, or a JSON array) and returns one result per order. Orders fail individually; the others are still created.")
+    public ResponseEntity<BulkOrderResultDTO> createOrdersInBulk(InputStream body) throws IOException {
+        return ResponseEntity.ok(orderBulkIntakeService.intake(body));
     }
 
     @PutMapping("/{id}")
@@ -60,6 +119,16 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
     }
 
+    @PutMapping("/status")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "Update order statuses in bulk",
+            description = "Moves up to 1000 orders to the same status and returns one outcome per order. Orders that cannot make the transition are reported and left unchanged.")
+    public ResponseEntity<BulkStatusUpdateResultDTO> updateOrderStatuses(
+            @Valid @RequestBody BulkStatusUpdateDTO request
+    ) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete order", description = "Deletes an order by its ID")
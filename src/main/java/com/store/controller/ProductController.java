@@ -1,5 +1,6 @@
 package com.store.controller;
 
+import com.store.dto.CursorPageDTO;
 import com.store.dto.ProductDTO;
 import com.store.dto.ProductFilterDTO;
 import com.store.service.ProductService;
@@ -19,7 +20,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.Collections;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
@@ -48,31 +48,26 @@ public class ProductController {
             return ResponseEntity.ok(new PageImpl<>(Collections.singletonList(product), pageable, 1));
         }
 
-        // Preparar o filtro para enviar ao service
+        // Todos os critérios vão juntos em uma única consulta paginada
         ProductFilterDTO filterDTO = new ProductFilterDTO();
         filterDTO.setDescription(description);
         filterDTO.setCategory(category);
         filterDTO.setMinPrice(minPrice);
         filterDTO.setMaxPrice(maxPrice);
         filterDTO.setActive(active);
-        filterDTO.setPage(pageable.getPageNumber());
-        filterDTO.setSize(pageable.getPageSize());
+        filterDTO.setLowStockThreshold(lowStockThreshold);
 
-        // Buscar produtos com base nos filtros
-        Page<ProductDTO> products = productService.findProductsByFilters(filterDTO);
-
-        // Se keyword for fornecida, fazer uma pesquisa por palavra-chave
-        if (keyword != null) {
-            products = productService.searchProducts(keyword, pageable);
-        }
-
-        // Se a quantidade de produtos de baixo estoque for solicitada
-        if (lowStockThreshold != null) {
-            List<ProductDTO> lowStockProducts = productService.findLowStockProducts(lowStockThreshold);
-            return ResponseEntity.ok(new PageImpl<>(lowStockProducts, pageable, lowStockProducts.size()));
-        }
+        return ResponseEntity.ok(productService.findProducts(filterDTO, keyword, pageable));
+    }
 
-        return ResponseEntity.ok(products);
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll products with a cursor",
+            description = "Keyset pagination over category, description, price and active filters. Pass the returned nextCursor as 'after' to get the next page; no total count is computed.")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> scrollProducts(
+            ProductFilterDTO filterDTO,
+            @Parameter(description = "Cursor returned by the previous page (optional)") @RequestParam(required = false) String after
+    ) {
+        return ResponseEntity.ok(productService.scrollProducts(filterDTO, after));
     }
 
     @PostMapping
@@ -1,14 +1,20 @@
 package com.store.controller;
 
 import com.store.dto.ReportDTO.OrderStatusReportDTO;
+import com.store.dto.ReportDTO.ReportJobDTO;
 import com.store.dto.ReportDTO.SalesReportDTO;
+import com.store.dto.ReportDTO.TopProductsReportDTO;
+import com.store.service.ReportJobService;
 import com.store.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 
 @RestController
@@ -17,6 +23,7 @@ import java.time.LocalDateTime;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
 
     @GetMapping("/sales")
     @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
@@ -26,9 +33,53 @@ public class ReportController {
         return ResponseEntity.ok(reportService.generateSalesReport(startDate, endDate));
     }
 
+    @GetMapping("/products/top")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    public ResponseEntity<TopProductsReportDTO> getTopProductsReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(reportService.generateTopProductsReport(startDate, endDate, limit));
+    }
+
+    @PostMapping("/sales/jobs")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    public ResponseEntity<ReportJobDTO> submitSalesReportJob(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        ReportJobDTO job = reportJobService.submitSalesReport(startDate, endDate);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reports/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @GetMapping("/jobs/{id}/result")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    public ResponseEntity<SalesReportDTO> getReportJobResult(@PathVariable String id) {
+        SalesReportDTO report = reportJobService.getResult(id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("sales-report-" + id + ".json")
+                        .build()
+                        .toString())
+                .body(report);
+    }
+
     @GetMapping("/orders/status")
     @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
     public ResponseEntity<OrderStatusReportDTO> getOrderStatusReport() {
         return ResponseEntity.ok(reportService.generateOrderStatusReport());
     }
-}
\ No newline at end of file
+
+    @PostMapping("/orders/status/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderStatusReportDTO> rebuildOrderStatusReport() {
+        return ResponseEntity.ok(reportService.rebuildOrderStatusReport());
+    }
+}
@@ -0,0 +1,42 @@
+package com.store.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResultDTO {
+    private int received;
+    private int created;
+    private int failed;
+    // Um resultado por pedido, na ordem em que chegaram
+    private List<OrderResult> results;
+
+    public static BulkOrderResultDTO of(List<OrderResult> results) {
+        int created = (int) results.stream().filter(result -> result.getOrderId() != null).count();
+        return new BulkOrderResultDTO(results.size(), created, results.size() - created, results);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderResult {
+        // Posição do pedido no corpo da requisição, a partir de 0
+        private int index;
+        private String status;
+        private Long orderId;
+        private String error;
+
+        public static OrderResult created(int index, Long orderId) {
+            return new OrderResult(index, "CREATED", orderId, null);
+        }
+
+        public static OrderResult failed(int index, String error) {
+            return new OrderResult(index, "FAILED", null, error);
+        }
+    }
+}
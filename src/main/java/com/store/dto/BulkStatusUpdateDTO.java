@@ -0,0 +1,24 @@
+package com.store.dto;
+
+import com.store.entity.Order.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateDTO {
+
+    @NotEmpty(message = "At least one order id is required")
+    @Size(max = 1000, message = "At most 1000 orders can be updated at once")
+    private List<@NotNull Long> orderIds;
+
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+}
@@ -0,0 +1,40 @@
+package com.store.dto;
+
+import com.store.entity.Order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResultDTO {
+    private OrderStatus status;
+    private int updated;
+    private int failed;
+    // Um resultado por id, na ordem da requisição
+    private List<OrderStatusResult> results;
+
+    public static BulkStatusUpdateResultDTO of(OrderStatus status, List<OrderStatusResult> results) {
+        int updated = (int) results.stream().filter(result -> result.getOutcome() == Outcome.UPDATED).count();
+        int unchanged = (int) results.stream().filter(result -> result.getOutcome() == Outcome.UNCHANGED).count();
+        return new BulkStatusUpdateResultDTO(status, updated, results.size() - updated - unchanged, results);
+    }
+
+    public enum Outcome {
+        UPDATED, UNCHANGED, NOT_FOUND, INVALID_TRANSITION
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderStatusResult {
+        private Long orderId;
+        private Outcome outcome;
+        // Status lido antes da atualização; nulo quando o pedido não existe
+        private OrderStatus previousStatus;
+        private String error;
+    }
+}
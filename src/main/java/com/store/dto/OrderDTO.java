@@ -5,9 +5,11 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -45,6 +47,7 @@ public class OrderDTO {
 
     private LocalDateTime updatedAt;
 
+    @Valid
     @NotEmpty(message = "Order must have at least one item")
     private List<OrderItemDTO> items = new ArrayList<>();
 
@@ -61,6 +64,7 @@ public class OrderDTO {
         private String productName;
 
         @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
         private Integer quantity;
 
         private BigDecimal price;
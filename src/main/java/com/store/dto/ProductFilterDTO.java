@@ -11,6 +11,7 @@ public class ProductFilterDTO {
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Boolean active;
+    private Integer lowStockThreshold;
     private Integer page;
     private Integer size;
     private String sortBy;
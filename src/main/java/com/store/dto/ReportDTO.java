@@ -43,4 +43,47 @@ public class ReportDTO {
         private int totalOrders;
         private BigDecimal totalValue;
     }
-}
\ No newline at end of file
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReportJobDTO {
+        private String id;
+        private String type;
+        // QUEUED, RUNNING, COMPLETED ou FAILED
+        private String status;
+        // Percentual de 0 a 100
+        private int progress;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+        private LocalDateTime submittedAt;
+        private LocalDateTime completedAt;
+        private String error;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopProductsReportDTO {
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+        // true quando calculado direto dos itens; false quando vem dos sketches diários
+        private boolean exact;
+        private List<ProductRankingDTO> byUnits;
+        private List<ProductRankingDTO> byRevenue;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductRankingDTO {
+        private Long productId;
+        private String productName;
+        // Unidades ou receita, conforme o ranking; nunca menor que o valor real
+        private BigDecimal value;
+        // Quanto value pode exceder o valor real
+        private BigDecimal maxOvercount;
+        // Se o produto está com certeza entre os N primeiros
+        private boolean guaranteed;
+    }
+}
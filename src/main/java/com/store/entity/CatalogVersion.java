@@ -0,0 +1,28 @@
+package com.store.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row counter bumped in the same transaction as every product create, update and delete, so
+ * other instances can tell whether their catalog cache is stale with one primary-key read.
+ */
+@Entity
+@Table(name = "catalog_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersion {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long version;
+
+    // Exclusões não aparecem em updated_at: contadas à parte para derrubar o cache inteiro
+    @Column(nullable = false)
+    private Long deletions;
+}
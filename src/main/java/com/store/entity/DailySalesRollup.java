@@ -0,0 +1,55 @@
+package com.store.entity;
+
+import com.store.entity.Order.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Orders and revenue of one day, status and payment method. Rows are written by
+ * {@link com.store.repository.DailySalesRollupRepository}; orders without a payment method are
+ * stored under {@link #UNKNOWN_PAYMENT_METHOD}.
+ */
+@Entity
+@Table(name = "daily_sales_rollup")
+@IdClass(DailySalesRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesRollup {
+
+    public static final String UNKNOWN_PAYMENT_METHOD = "UNKNOWN";
+
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate day;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private OrderStatus status;
+
+    @Id
+    @Column(length = 50)
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalSales;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private OrderStatus status;
+        private String paymentMethod;
+    }
+}
@@ -0,0 +1,50 @@
+package com.store.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an order creation sent with an {@code Idempotency-Key}, scoped to the user who sent it.
+ * The row is inserted before the order is created, in the same transaction, so a concurrent duplicate
+ * on another instance blocks on the primary key until the first request commits.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@IdClass(IdempotencyRecord.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    private Long userId;
+
+    @Id
+    @Column(length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 do corpo da requisição, para recusar a mesma chave com outro pedido
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Long orderId;
+
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String idempotencyKey;
+    }
+}
@@ -1,14 +1,19 @@
 package com.store.entity;
 
+import com.store.entity.id.StoreIdGenerator;
+import com.store.util.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,10 +27,12 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "orders_seq")
+    @GenericGenerator(name = "orders_seq", type = StoreIdGenerator.class,
+            parameters = @Parameter(name = StoreIdGenerator.SEQUENCE_PARAM, value = "orders_seq"))
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -76,12 +83,21 @@ public class Order {
     }
 
     public void recalculateTotal() {
-        this.totalAmount = items.stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.totalAmount = calculateTotal().toBigDecimal();
+    }
 
-        // Add shipping and tax, subtract discounts
-        this.totalAmount = this.totalAmount.add(shippingCost).add(taxAmount).subtract(discountAmount);
+    /**
+     * Items plus shipping and tax, minus discounts, in centavos. Amounts with more than two decimal
+     * places are rounded half-up, as the {@code NUMERIC(…, 2)} columns would store them.
+     */
+    public Money calculateTotal() {
+        Money total = Money.ZERO;
+        for (OrderItem item : items) {
+            total = total.plus(Money.of(item.getPrice(), RoundingMode.HALF_UP).times(item.getQuantity()));
+        }
+        return total.plus(Money.of(shippingCost, RoundingMode.HALF_UP))
+                .plus(Money.of(taxAmount, RoundingMode.HALF_UP))
+                .minus(Money.of(discountAmount, RoundingMode.HALF_UP));
     }
 
     public enum OrderStatus {
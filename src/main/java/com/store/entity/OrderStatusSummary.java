@@ -0,0 +1,28 @@
+package com.store.entity;
+
+import com.store.entity.Order.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_status_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusSummary {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalValue = BigDecimal.ZERO;
+}
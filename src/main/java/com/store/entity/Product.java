@@ -1,9 +1,12 @@
 package com.store.entity;
 
+import com.store.entity.id.StoreIdGenerator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -22,7 +25,9 @@ import java.util.List;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "products_seq")
+    @GenericGenerator(name = "products_seq", type = StoreIdGenerator.class,
+            parameters = @Parameter(name = StoreIdGenerator.SEQUENCE_PARAM, value = "products_seq"))
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,65 @@
+package com.store.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State and result of an asynchronous report job. Any instance can answer a poll or a download from this
+ * row; only the instance running the job writes its progress and keeps {@code updatedAt} fresh.
+ */
+@Entity
+@Table(name = "report_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRecord {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    // Percentual de 0 a 100
+    @Column(nullable = false)
+    private int progress;
+
+    @Column(nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(nullable = false)
+    private LocalDateTime endDate;
+
+    @Column(nullable = false)
+    private LocalDateTime submittedAt;
+
+    // Heartbeat da instância que executa o job
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    // SalesReportDTO serializado em JSON
+    @Column(columnDefinition = "TEXT")
+    private String result;
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
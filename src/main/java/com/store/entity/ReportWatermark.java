@@ -0,0 +1,22 @@
+package com.store.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "report_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportWatermark {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    private LocalDateTime watermark;
+}
@@ -0,0 +1,36 @@
+package com.store.entity;
+
+import com.store.entity.id.StoreIdGenerator;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A day whose rollup rows must be recomputed even though no remaining order of that day changed,
+ * e.g. because an order was deleted.
+ */
+@Entity
+@Table(name = "sales_rollup_dirty_days")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupDirtyDay {
+
+    @Id
+    @GeneratedValue(generator = "sales_rollup_dirty_days_seq")
+    @GenericGenerator(name = "sales_rollup_dirty_days_seq", type = StoreIdGenerator.class,
+            parameters = @Parameter(name = StoreIdGenerator.SEQUENCE_PARAM, value = "sales_rollup_dirty_days_seq"))
+    private Long id;
+
+    @Column(name = "sales_day", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private LocalDateTime markedAt;
+}
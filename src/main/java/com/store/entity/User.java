@@ -1,9 +1,12 @@
 package com.store.entity;
 
+import com.store.entity.id.StoreIdGenerator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -25,7 +28,9 @@ import com.store.entity.enums.UserRole;  // Importando a enumeração
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "users_seq")
+    @GenericGenerator(name = "users_seq", type = StoreIdGenerator.class,
+            parameters = @Parameter(name = StoreIdGenerator.SEQUENCE_PARAM, value = "users_seq"))
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -0,0 +1,55 @@
+package com.store.entity.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, time-ordered 64-bit ids: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id
+ * and 12 bits of per-millisecond sequence. Ids from one node are strictly increasing; when a millisecond
+ * runs out of sequence numbers the generator borrows the next one instead of blocking, and a clock that
+ * goes backwards keeps the last timestamp until it catches up.
+ */
+public class SnowflakeIdGenerator {
+
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    // (milissegundos desde EPOCH << SEQUENCE_BITS) | sequência do último id emitido
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        long next;
+        long previous;
+        do {
+            previous = lastState.get();
+            long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+            next = Math.max(now, previous + 1);
+        } while (!lastState.compareAndSet(previous, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,74 @@
+package com.store.entity.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Id generator shared by the entities. Both strategies hand out ids without a database round trip per
+ * row, which keeps Hibernate's JDBC insert batching on (IDENTITY turns it off):
+ * <ul>
+ *     <li>{@code sequence} (default): pooled sequence, one {@code nextval} per {@link #DEFAULT_INCREMENT_SIZE} ids;</li>
+ *     <li>{@code snowflake}: time-ordered ids built in memory from {@code store.id.node-id}, see {@link SnowflakeIdGenerator}.</li>
+ * </ul>
+ * The strategy is read from the Hibernate settings {@value #STRATEGY_SETTING} and {@value #NODE_ID_SETTING};
+ * with {@code snowflake} the node id has no default and startup fails when it is not set.
+ * The sequence is registered in both cases so the schema stays the same when switching.
+ */
+public class StoreIdGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY_SETTING = "store.id.strategy";
+    public static final String NODE_ID_SETTING = "store.id.node-id";
+
+    private SnowflakeIdGenerator snowflake;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService settings = serviceRegistry.requireService(ConfigurationService.class);
+        String strategy = settings.getSetting(STRATEGY_SETTING, StandardConverters.STRING, "sequence");
+        switch (strategy) {
+            case "sequence" -> snowflake = null;
+            case "snowflake" -> snowflake = new SnowflakeIdGenerator(nodeId(settings));
+            default -> throw new MappingException("Unknown id strategy '" + strategy + "' in " + STRATEGY_SETTING);
+        }
+
+        super.configure(type, params, serviceRegistry);
+    }
+
+    // Sem valor padrão: duas instâncias com o mesmo node-id gerariam ids repetidos
+    private static long nodeId(ConfigurationService settings) {
+        String nodeId = settings.getSetting(NODE_ID_SETTING, StandardConverters.STRING);
+        if (nodeId == null || nodeId.isBlank()) {
+            throw new MappingException("The snowflake id strategy requires " + NODE_ID_SETTING
+                    + " to be set to a value unique to this instance");
+        }
+        try {
+            return Long.parseLong(nodeId.trim());
+        } catch (NumberFormatException ex) {
+            throw new MappingException("Invalid " + NODE_ID_SETTING + " '" + nodeId + "'", ex);
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        return snowflake != null ? snowflake.nextId() : super.generate(session, object);
+    }
+
+    @Override
+    public boolean supportsBulkInsertionIdentifierGeneration() {
+        return snowflake == null && super.supportsBulkInsertionIdentifierGeneration();
+    }
+
+    @Override
+    public String determineBulkInsertionIdentifierGenerationSelectFragment(SqlStringGenerationContext context) {
+        return snowflake == null ? super.determineBulkInsertionIdentifierGenerationSelectFragment(context) : null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.store.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String key) {
+        super("Idempotency-Key " + key + " was already used with a different request");
+    }
+}
@@ -0,0 +1,11 @@
+package com.store.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ReportJobNotReadyException extends RuntimeException {
+    public ReportJobNotReadyException(String id, String status) {
+        super("Report job " + id + " has no result to download (status " + status + ")");
+    }
+}
@@ -24,10 +24,19 @@ public interface OrderMapper {
     @Mapping(source = "productId", target = "product.id")
     OrderItem toOrderItem(OrderDTO.OrderItemDTO itemDTO);
 
+    // productName vem do próprio item (snapshot do pedido), sem inicializar o produto
     @Mapping(source = "product.id", target = "productId")
-    @Mapping(source = "product.name", target = "productName")
+    @Mapping(target = "productName", expression = "java(productName(orderItem))")
     OrderDTO.OrderItemDTO toOrderItemDTO(OrderItem orderItem);
 
+    // Itens gravados antes do snapshot podem estar sem nome: só nesse caso o produto é carregado
+    default String productName(OrderItem orderItem) {
+        if (orderItem.getProductName() != null || orderItem.getProduct() == null) {
+            return orderItem.getProductName();
+        }
+        return orderItem.getProduct().getName();
+    }
+
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "items", ignore = true) // se você não estiver atualizando os itens aqui
@@ -50,5 +59,6 @@ public interface OrderMapper {
     @Mapping(source = "product", target = "product")
     @Mapping(source = "order", target = "order")
     @Mapping(source = "product.price", target = "price")
+    @Mapping(source = "product.name", target = "productName") // snapshot vem do produto carregado, não do cliente
     OrderItem toOrderItem(OrderDTO.OrderItemDTO itemDTO, Order order, Product product);
 }
\ No newline at end of file
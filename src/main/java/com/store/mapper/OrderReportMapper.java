@@ -1,12 +1,10 @@
 package com.store.mapper;
 
-import com.store.dto.ReportDTO.OrderStatusReportDTO;
 import com.store.dto.ReportDTO.SalesReportDTO;
-import com.store.entity.Order;
+import com.store.repository.projection.DailySalesAggregate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderReportMapper {
-    SalesReportDTO toSalesReportDTO(List<Order> orders, LocalDateTime startDate, LocalDateTime endDate);
-    OrderStatusReportDTO toOrderStatusReportDTO(List<Order> orders);
-}
\ No newline at end of file
+    SalesReportDTO toSalesReportDTO(List<DailySalesAggregate> rows, LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -1,107 +1,86 @@
 package com.store.mapper;
 
 import com.store.dto.ReportDTO.DailySalesDTO;
-import com.store.dto.ReportDTO.OrderStatusReportDTO;
 import com.store.dto.ReportDTO.SalesReportDTO;
-import com.store.entity.Order;
-
+import com.store.entity.Order.PaymentMethod;
+import com.store.repository.projection.DailySalesAggregate;
+import com.store.service.SalesAggregator;
+import com.store.service.SalesAggregator.SalesTotals;
+import com.store.util.Money;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class OrderReportMapperImpl implements OrderReportMapper {
 
+    private static final String UNKNOWN_PAYMENT_METHOD = "UNKNOWN";
+
+    private final SalesAggregator salesAggregator;
+
     @Override
-    public SalesReportDTO toSalesReportDTO(List<Order> orders, LocalDateTime startDate, LocalDateTime endDate) {
-        int orderCount = orders.size();
-        BigDecimal totalSales = calculateTotalAmount(orders);
-        BigDecimal averageOrderValue = calculateAverageOrderValue(totalSales, orderCount);
-        Map<String, BigDecimal> salesByPaymentMethod = calculateSalesByPaymentMethod(orders);
-        List<DailySalesDTO> dailySales = generateDailySales(orders, startDate, endDate);
+    public SalesReportDTO toSalesReportDTO(List<DailySalesAggregate> rows, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime firstDay = startDate.with(LocalTime.MIN);
+        int days = firstDay.isAfter(endDate) ? 0 : (int) ChronoUnit.DAYS.between(firstDay.toLocalDate(), endDate.toLocalDate()) + 1;
+        SalesTotals totals = salesAggregator.aggregate(rows, firstDay.toLocalDate(), days);
+
+        int orderCount = (int) totals.orderCount();
+        Money totalSales = Money.ofMinor(totals.salesMinor());
 
         return new SalesReportDTO(
                 startDate,
                 endDate,
-                totalSales,
+                totalSales.toBigDecimal(),
                 orderCount,
-                averageOrderValue,
-                salesByPaymentMethod,
-                dailySales
+                calculateAverageOrderValue(totalSales, orderCount).toBigDecimal(),
+                calculateSalesByPaymentMethod(rows, totals),
+                generateDailySales(totals, firstDay, days)
         );
     }
 
-    @Override
-    public OrderStatusReportDTO toOrderStatusReportDTO(List<Order> orders) {
-        Map<String, Integer> orderCountByStatus = calculateOrderCountByStatus(orders);
-        Map<String, BigDecimal> totalValueByStatus = calculateTotalValueByStatus(orders);
-        BigDecimal totalValue = calculateTotalAmount(orders);
-
-        return new OrderStatusReportDTO(
-                orderCountByStatus,
-                totalValueByStatus,
-                orders.size(),
-                totalValue
-        );
+    private Money calculateAverageOrderValue(Money totalSales, int orderCount) {
+        return orderCount == 0 ? Money.ZERO : totalSales.dividedBy(orderCount, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateAverageOrderValue(BigDecimal totalSales, int orderCount) {
-        return orderCount == 0 ? BigDecimal.ZERO :
-                totalSales.divide(BigDecimal.valueOf(orderCount), 2, RoundingMode.HALF_UP);
-    }
+    // Só aparecem no mapa as formas de pagamento presentes nas linhas
+    private Map<String, BigDecimal> calculateSalesByPaymentMethod(List<DailySalesAggregate> rows, SalesTotals totals) {
+        EnumSet<PaymentMethod> present = EnumSet.noneOf(PaymentMethod.class);
+        boolean unknown = false;
+        for (DailySalesAggregate row : rows) {
+            if (row.paymentMethod() == null) {
+                unknown = true;
+            } else {
+                present.add(row.paymentMethod());
+            }
+        }
 
-    private Map<String, BigDecimal> calculateSalesByPaymentMethod(List<Order> orders) {
-        return orders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getPaymentMethod().toString(),
-                        Collectors.reducing(BigDecimal.ZERO, Order::getTotalAmount, BigDecimal::add)
-                ));
+        long[] salesByMethod = totals.salesMinorByMethod();
+        Map<String, BigDecimal> salesByPaymentMethod = new HashMap<>();
+        for (PaymentMethod method : present) {
+            salesByPaymentMethod.put(method.toString(), Money.ofMinor(salesByMethod[method.ordinal()]).toBigDecimal());
+        }
+        if (unknown) {
+            salesByPaymentMethod.put(UNKNOWN_PAYMENT_METHOD,
+                    Money.ofMinor(salesByMethod[salesByMethod.length - 1]).toBigDecimal());
+        }
+        return salesByPaymentMethod;
     }
 
-    private List<DailySalesDTO> generateDailySales(List<Order> orders, LocalDateTime startDate, LocalDateTime endDate) {
-        Map<LocalDateTime, List<Order>> ordersByDay = orders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getCreatedAt().with(LocalTime.MIN)
-                ));
-
-        List<DailySalesDTO> dailySales = new ArrayList<>();
-        LocalDateTime currentDate = startDate.with(LocalTime.MIN);
-
-        while (!currentDate.isAfter(endDate)) {
-            List<Order> dailyOrders = ordersByDay.getOrDefault(currentDate, Collections.emptyList());
-            BigDecimal dailyTotal = calculateTotalAmount(dailyOrders);
-            int dailyOrderCount = dailyOrders.size();
-
-            dailySales.add(new DailySalesDTO(currentDate, dailyTotal, dailyOrderCount));
-            currentDate = currentDate.plusDays(1);
+    // Os totais já vêm por posição do dia no período; aqui só montamos um DTO por dia, inclusive os dias sem vendas
+    private List<DailySalesDTO> generateDailySales(SalesTotals totals, LocalDateTime firstDay, int days) {
+        List<DailySalesDTO> dailySales = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            dailySales.add(new DailySalesDTO(firstDay.plusDays(day),
+                    Money.ofMinor(totals.salesMinorByDay()[day]).toBigDecimal(),
+                    (int) totals.ordersByDay()[day]));
         }
-
         return dailySales;
     }
-
-    private Map<String, Integer> calculateOrderCountByStatus(List<Order> orders) {
-        return orders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getStatus().toString(),
-                        Collectors.collectingAndThen(Collectors.counting(), Long::intValue)
-                ));
-    }
-
-    private Map<String, BigDecimal> calculateTotalValueByStatus(List<Order> orders) {
-        return orders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getStatus().toString(),
-                        Collectors.reducing(BigDecimal.ZERO, Order::getTotalAmount, BigDecimal::add)
-                ));
-    }
-
-    private BigDecimal calculateTotalAmount(List<Order> orders) {
-        return orders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.store.repository;
+
+import com.store.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Integer> {
+
+    @Modifying
+    @Query("UPDATE CatalogVersion v SET v.version = v.version + 1, v.deletions = v.deletions + :deleted WHERE v.id = :id")
+    int bump(@Param("id") Integer id, @Param("deleted") long deleted);
+}
@@ -0,0 +1,24 @@
+package com.store.repository;
+
+import com.store.entity.DailySalesRollup;
+import com.store.entity.Order.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository
+        extends JpaRepository<DailySalesRollup, DailySalesRollup.Key>, DailySalesRollupRepositoryCustom {
+
+    @Query("""
+            SELECT r FROM DailySalesRollup r
+            WHERE r.status = :status AND r.day >= :fromDay AND r.day < :toDay
+            """)
+    List<DailySalesRollup> findByStatusAndDayRange(@Param("status") OrderStatus status,
+                                                   @Param("fromDay") LocalDate fromDay,
+                                                   @Param("toDay") LocalDate toDay);
+}
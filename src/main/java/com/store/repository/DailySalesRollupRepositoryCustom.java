@@ -0,0 +1,13 @@
+package com.store.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface DailySalesRollupRepositoryCustom {
+
+    /**
+     * Replaces the rollup rows of the given days with a fresh aggregation of the orders created on
+     * those days. Each day is one DELETE and one INSERT ... SELECT, sent as two JDBC batches.
+     */
+    void recomputeDays(Collection<LocalDate> days);
+}
@@ -0,0 +1,38 @@
+package com.store.repository;
+
+import com.store.entity.DailySalesRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DailySalesRollupRepositoryImpl implements DailySalesRollupRepositoryCustom {
+
+    private static final String DELETE_DAY_SQL = "DELETE FROM daily_sales_rollup WHERE sales_day = ?";
+
+    private static final String INSERT_DAY_SQL = """
+            INSERT INTO daily_sales_rollup (sales_day, status, payment_method, order_count, total_sales)
+            SELECT CAST(created_at AS DATE), status, COALESCE(payment_method, '%1$s'), COUNT(*), SUM(total_amount)
+            FROM orders
+            WHERE created_at >= ? AND created_at < ?
+            GROUP BY CAST(created_at AS DATE), status, COALESCE(payment_method, '%1$s')
+            """.formatted(DailySalesRollup.UNKNOWN_PAYMENT_METHOD);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void recomputeDays(Collection<LocalDate> days) {
+        List<Object[]> deleteArgs = new ArrayList<>(days.size());
+        List<Object[]> insertArgs = new ArrayList<>(days.size());
+        for (LocalDate day : days) {
+            deleteArgs.add(new Object[]{day});
+            insertArgs.add(new Object[]{day.atStartOfDay(), day.plusDays(1).atStartOfDay()});
+        }
+        jdbcTemplate.batchUpdate(DELETE_DAY_SQL, deleteArgs);
+        jdbcTemplate.batchUpdate(INSERT_DAY_SQL, insertArgs);
+    }
+}
@@ -0,0 +1,42 @@
+package com.store.repository;
+
+import com.store.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecord.Key> {
+
+    // INSERT explícito (save() faria merge): uma chave já gravada por outra instância deve falhar, não ser sobrescrita
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, expires_at)
+            VALUES (:userId, :key, :requestHash, :expiresAt)
+            """, nativeQuery = true)
+    void claim(@Param("userId") Long userId, @Param("key") String key,
+               @Param("requestHash") String requestHash, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyRecord r SET r.orderId = :orderId, r.response = :response
+            WHERE r.userId = :userId AND r.idempotencyKey = :key
+            """)
+    void complete(@Param("userId") Long userId, @Param("key") String key,
+                  @Param("orderId") Long orderId, @Param("response") String response);
+
+    @Modifying
+    @Query("""
+            DELETE FROM IdempotencyRecord r
+            WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.expiresAt <= :now
+            """)
+    int deleteIfExpired(@Param("userId") Long userId, @Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
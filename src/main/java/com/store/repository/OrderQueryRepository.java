@@ -0,0 +1,128 @@
+package com.store.repository;
+
+import com.store.dto.OrderFilterDTO;
+import com.store.exceptions.InvalidCursorException;
+import com.store.exceptions.InvalidSortException;
+import com.store.repository.projection.OrderExportRow;
+import com.store.repository.query.JpqlQueryBuilder;
+import com.store.repository.query.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Repository
+public class OrderQueryRepository {
+
+    private static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+            "id", Long.class,
+            "createdAt", LocalDateTime.class,
+            "totalAmount", BigDecimal.class
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Returns up to {@code limit} rows of {@code [orderId, sortValue]} after the cursor, without a count query.
+     */
+    public List<Object[]> scrollIds(OrderFilterDTO filterDTO, Long userId, String sortBy, Sort.Direction direction,
+                                    KeysetCursor after, int limit) {
+        Class<?> sortType = SORTABLE_PROPERTIES.get(sortBy);
+        if (sortType == null) {
+            throw new InvalidCursorException("Unsupported sort property: " + sortBy);
+        }
+
+        JpqlQueryBuilder builder = filters(filterDTO, userId);
+        if (after != null) {
+            builder.seek(sortBy, direction, after.typedValue(sortType), after.id());
+        }
+
+        return builder.createQuery(entityManager, "SELECT o.id, o." + sortBy + " FROM Order o",
+                        builder.orderByClause(sortBy, direction), Object[].class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * One OFFSET page of order ids with only the active filters in the WHERE clause. Each filter shape
+     * renders the same JPQL string, so Hibernate's query plan cache and the driver's prepared statement
+     * cache are reused across requests, and the planner sees plain range predicates it can match to the
+     * composite indexes on {@code orders}. The total comes from {@code COUNT(*) OVER ()} in the same statement.
+     */
+    public Page<Long> findIdsPage(OrderFilterDTO filterDTO, Long userId, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+                throw new InvalidSortException(order.getProperty());
+            }
+        }
+
+        JpqlQueryBuilder builder = filters(filterDTO, userId);
+        List<Object[]> rows = builder.createQuery(entityManager, "SELECT o.id, COUNT(*) OVER () FROM Order o",
+                        builder.orderByClause(pageable.getSort()), Object[].class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<Long> content = rows.stream().map(row -> (Long) row[0]).toList();
+        if (!rows.isEmpty()) {
+            return new PageImpl<>(content, pageable, (Long) rows.get(0)[1]);
+        }
+        if (pageable.getOffset() == 0) {
+            return new PageImpl<>(content, pageable, 0);
+        }
+        long total = builder.createQuery(entityManager, "SELECT COUNT(o) FROM Order o", "", Long.class)
+                .getSingleResult();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Passes every order matching the filters to {@code consumer}, in id order, through a forward-only
+     * cursor that fetches {@code fetchSize} rows at a time. Must run inside a transaction: the PostgreSQL
+     * driver only honours the fetch size with auto-commit off, otherwise it reads the whole result first.
+     */
+    @SuppressWarnings("unchecked")
+    public long streamExportRows(OrderFilterDTO filterDTO, Long userId, int fetchSize, Consumer<OrderExportRow> consumer) {
+        JpqlQueryBuilder builder = filters(filterDTO, userId);
+        String select = """
+                SELECT new com.store.repository.projection.OrderExportRow(
+                    o.id, o.user.id, o.status, o.paymentMethod, o.shippingCost, o.taxAmount, o.discountAmount,
+                    o.totalAmount, o.shippingAddress, o.trackingNumber, o.createdAt, o.updatedAt)
+                FROM Order o""";
+        org.hibernate.query.Query<OrderExportRow> query = builder
+                .createQuery(entityManager, select, " ORDER BY o.id", OrderExportRow.class)
+                .unwrap(org.hibernate.query.Query.class);
+
+        long count = 0;
+        try (ScrollableResults<OrderExportRow> rows = query.setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                consumer.accept(rows.get());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private JpqlQueryBuilder filters(OrderFilterDTO filterDTO, Long userId) {
+        return new JpqlQueryBuilder("o")
+                .where("o.createdAt >= :startDate", "startDate", filterDTO.getStartDate())
+                .where("o.createdAt <= :endDate", "endDate", filterDTO.getEndDate())
+                .where("o.status = :status", "status", filterDTO.getStatus())
+                .where("o.totalAmount >= :minAmount", "minAmount", filterDTO.getMinAmount())
+                .where("o.totalAmount <= :maxAmount", "maxAmount", filterDTO.getMaxAmount())
+                .where("o.user.id = :userId", "userId", userId);
+    }
+}
@@ -2,53 +2,106 @@ package com.store.repository;
 
 import com.store.entity.Order;
 import com.store.entity.Order.OrderStatus;
+import com.store.repository.projection.DailySalesAggregate;
+import com.store.repository.projection.OrderStatusRow;
+import com.store.repository.projection.ProductSalesAggregate;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    @Query("SELECT o FROM Order o WHERE o.user.id = :userId")
-    Page<Order> findByUserId(@Param("userId") Long userId, Pageable pageable);
-
     @Query("SELECT o FROM Order o WHERE o.status = :status")
     Page<Order> findByStatus(@Param("status") OrderStatus status, Pageable pageable);
 
+    // Segunda etapa da leitura paginada: a página de ids vem do OrderQueryRepository (filtro por usuário incluso)
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT DISTINCT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Agregação feita no banco: uma linha por dia e forma de pagamento, sem carregar os pedidos
     @Query("""
-        SELECT o FROM Order o 
-        WHERE (:startDate IS NULL OR o.createdAt >= :startDate)
-        AND (:endDate IS NULL OR o.createdAt <= :endDate)
-        AND (:status IS NULL OR o.status = :status)
-        AND (:minAmount IS NULL OR o.totalAmount >= :minAmount)
-        AND (:maxAmount IS NULL OR o.totalAmount <= :maxAmount)
-        AND (:userId IS NULL OR o.user.id = :userId)
+        SELECT new com.store.repository.projection.DailySalesAggregate(
+            CAST(o.createdAt AS LocalDate), o.paymentMethod, COUNT(o), SUM(o.totalAmount))
+        FROM Order o
+        WHERE o.createdAt BETWEEN :startDate AND :endDate
+        AND o.status = :status
+        GROUP BY CAST(o.createdAt AS LocalDate), o.paymentMethod
     """)
-    Page<Order> findOrdersByFilters(
+    List<DailySalesAggregate> aggregateSalesByDayAndPaymentMethod(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
-            @Param("status") OrderStatus status,
-            @Param("minAmount") BigDecimal minAmount,
-            @Param("maxAmount") BigDecimal maxAmount,
-            @Param("userId") Long userId,
-            Pageable pageable
+            @Param("status") OrderStatus status
     );
 
+    // Itens agregados no banco: uma linha por dia e produto
     @Query("""
-        SELECT o FROM Order o 
-        WHERE o.createdAt BETWEEN :startDate AND :endDate 
-        AND o.status = :status
+        SELECT new com.store.repository.projection.ProductSalesAggregate(
+            CAST(o.createdAt AS LocalDate), i.product.id, SUM(i.quantity), SUM(i.price * i.quantity))
+        FROM OrderItem i JOIN i.order o
+        WHERE o.createdAt BETWEEN :startDate AND :endDate
+        AND o.status NOT IN :excludedStatuses
+        GROUP BY CAST(o.createdAt AS LocalDate), i.product.id
     """)
-    List<Order> findByDateRangeAndStatus(
+    List<ProductSalesAggregate> aggregateProductSalesByDay(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
-            @Param("status") OrderStatus status
+            @Param("excludedStatuses") Collection<OrderStatus> excludedStatuses
     );
-}
\ No newline at end of file
+
+    // Mesma agregação com o fim exclusivo, para limites à meia-noite: o fim não pertence ao intervalo
+    @Query("""
+        SELECT new com.store.repository.projection.ProductSalesAggregate(
+            CAST(o.createdAt AS LocalDate), i.product.id, SUM(i.quantity), SUM(i.price * i.quantity))
+        FROM OrderItem i JOIN i.order o
+        WHERE o.createdAt >= :startDate AND o.createdAt < :endDate
+        AND o.status NOT IN :excludedStatuses
+        GROUP BY CAST(o.createdAt AS LocalDate), i.product.id
+    """)
+    List<ProductSalesAggregate> aggregateProductSalesByDayBefore(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("excludedStatuses") Collection<OrderStatus> excludedStatuses
+    );
+
+    @Query("SELECT DISTINCT CAST(o.createdAt AS LocalDate) FROM Order o WHERE o.updatedAt > :since")
+    List<LocalDate> findCreationDaysUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT DISTINCT CAST(o.createdAt AS LocalDate) FROM Order o")
+    List<LocalDate> findAllCreationDays();
+
+    @Query("SELECT o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0) FROM Order o GROUP BY o.status")
+    List<Object[]> summarizeByStatus();
+
+    // Bloqueia as linhas em ordem de id para que duas atualizações em lote não se travem
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT new com.store.repository.projection.OrderStatusRow(o.id, o.status, o.totalAmount, o.createdAt)
+        FROM Order o WHERE o.id IN :ids ORDER BY o.id
+    """)
+    List<OrderStatusRow> findStatusRowsByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // UPDATE em lote não passa pela auditoria, então updated_at é gravado aqui para o rollup diário enxergar a mudança
+    @Modifying
+    @Query("""
+        UPDATE Order o SET o.status = :newStatus, o.updatedAt = :updatedAt
+        WHERE o.id IN :ids AND o.status = :currentStatus
+    """)
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("currentStatus") OrderStatus currentStatus,
+                     @Param("newStatus") OrderStatus newStatus,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,32 @@
+package com.store.repository;
+
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.OrderStatusSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface OrderStatusSummaryRepository extends JpaRepository<OrderStatusSummary, OrderStatus> {
+
+    @Modifying
+    @Query("""
+            UPDATE OrderStatusSummary s
+            SET s.orderCount = s.orderCount + :countDelta, s.totalValue = s.totalValue + :valueDelta
+            WHERE s.status = :status
+            """)
+    int applyDelta(@Param("status") OrderStatus status,
+                   @Param("countDelta") long countDelta,
+                   @Param("valueDelta") BigDecimal valueDelta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderStatusSummary s ORDER BY s.status")
+    List<OrderStatusSummary> lockAll();
+}
@@ -0,0 +1,112 @@
+package com.store.repository;
+
+import com.store.dto.ProductFilterDTO;
+import com.store.entity.Product;
+import com.store.exceptions.InvalidCursorException;
+import com.store.exceptions.InvalidSortException;
+import com.store.repository.query.JpqlQueryBuilder;
+import com.store.repository.query.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class ProductQueryRepository {
+
+    private static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+            "id", Long.class,
+            "name", String.class,
+            "price", BigDecimal.class,
+            "createdAt", LocalDateTime.class
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Returns up to {@code limit} rows of {@code [Product, sortValue]} after the cursor, without a count query.
+     */
+    public List<Object[]> scroll(ProductFilterDTO filterDTO, String sortBy, Sort.Direction direction,
+                                 KeysetCursor after, int limit) {
+        Class<?> sortType = SORTABLE_PROPERTIES.get(sortBy);
+        if (sortType == null) {
+            throw new InvalidCursorException("Unsupported sort property: " + sortBy);
+        }
+
+        JpqlQueryBuilder builder = filters(filterDTO);
+        if (after != null) {
+            builder.seek(sortBy, direction, after.typedValue(sortType), after.id());
+        }
+
+        return builder.createQuery(entityManager, "SELECT p, p." + sortBy + " FROM Product p",
+                        builder.orderByClause(sortBy, direction), Object[].class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * One OFFSET page of products matching the filters, the keyword and the low-stock threshold
+     * together. The total comes from {@code COUNT(*) OVER ()} in the same statement, so a page costs a
+     * single round trip; only a page past the last row needs a separate count.
+     *
+     * @param keywordIds ids matching the keyword in the search index, or null to match the keyword
+     *                   with LIKE over name, description and category
+     */
+    public Page<Product> findPage(ProductFilterDTO filterDTO, String keyword, Collection<Long> keywordIds,
+                                  Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+                throw new InvalidSortException(order.getProperty());
+            }
+        }
+
+        JpqlQueryBuilder builder = filters(filterDTO);
+        if (keywordIds != null) {
+            builder.where("p.id IN :keywordIds", "keywordIds", keywordIds);
+        } else {
+            builder.where("""
+                    (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
+                    OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))
+                    OR LOWER(p.category) LIKE LOWER(CONCAT('%', :keyword, '%')))""", "keyword", keyword);
+        }
+
+        List<Object[]> rows = builder.createQuery(entityManager, "SELECT p, COUNT(*) OVER () FROM Product p",
+                        builder.orderByClause(pageable.getSort()), Object[].class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<Product> content = rows.stream().map(row -> (Product) row[0]).toList();
+        if (!rows.isEmpty()) {
+            return new PageImpl<>(content, pageable, (Long) rows.get(0)[1]);
+        }
+        if (pageable.getOffset() == 0) {
+            return new PageImpl<>(content, pageable, 0);
+        }
+        long total = builder.createQuery(entityManager, "SELECT COUNT(p) FROM Product p", "", Long.class)
+                .getSingleResult();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private JpqlQueryBuilder filters(ProductFilterDTO filterDTO) {
+        return new JpqlQueryBuilder("p")
+                .where("LOWER(p.category) = LOWER(:category)", "category", filterDTO.getCategory())
+                .where("LOWER(p.description) LIKE LOWER(CONCAT('%', :description, '%'))",
+                        "description", filterDTO.getDescription())
+                .where("p.price >= :minPrice", "minPrice", filterDTO.getMinPrice())
+                .where("p.price <= :maxPrice", "maxPrice", filterDTO.getMaxPrice())
+                .where("p.active = :active", "active", filterDTO.getActive())
+                .where("p.stockQuantity <= :lowStockThreshold AND p.active = TRUE",
+                        "lowStockThreshold", filterDTO.getLowStockThreshold());
+    }
+}
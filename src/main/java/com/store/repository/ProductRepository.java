@@ -1,44 +1,44 @@
 package com.store.repository;
 
 import com.store.entity.Product;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
-    @Query("""
-            SELECT p FROM Product p 
-            WHERE (:category IS NULL OR LOWER(p.category) = LOWER(:category))
-            AND (:description IS NULL OR LOWER(p.description) LIKE LOWER(CONCAT('%', :description, '%')))
-            AND (:minPrice IS NULL OR p.price >= :minPrice)
-            AND (:maxPrice IS NULL OR p.price <= :maxPrice)
-            AND (:active IS NULL OR p.active = :active)
-            """)
-    Page<Product> findProductsByFilters(
-            @Param("category") String category,
-            @Param("description") String description,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("active") Boolean active,
-            Pageable pageable
-    );
+    // Carga do índice de busca em lotes por id, sem OFFSET
+    @Query("SELECT p.id, p.name, p.description, p.category FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchableAfter(@Param("afterId") Long afterId, Pageable pageable);
 
+    // Lock em ordem de id, a mesma dos checkouts, para a reserva de estoque em lote
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
     @Query("""
-            SELECT p FROM Product p 
-            WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) 
-            OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) 
-            OR LOWER(p.category) LIKE LOWER(CONCAT('%', :keyword, '%'))
+            UPDATE Product p
+            SET p.stockQuantity = p.stockQuantity - :quantity
+            WHERE p.id = :id AND p.stockQuantity >= :quantity AND p.active = true
             """)
-    Page<Product> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    int decrementStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id AND p.active = true")
+    Optional<Integer> findActiveStockQuantity(@Param("id") Long id);
 
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity <= :threshold AND p.active = true")
-    List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
-}
\ No newline at end of file
+    // Sincronização do cache do catálogo entre instâncias
+    @Query("SELECT p.id FROM Product p WHERE p.updatedAt > :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,23 @@
+package com.store.repository;
+
+import java.util.SortedMap;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Decrements the stock of every product in a single JDBC batch. Each row is only touched when
+     * the product is active and still has enough stock; the returned array holds the affected
+     * row count per entry, in key order, so a zero marks a reservation that could not be applied.
+     */
+    int[] decrementStock(SortedMap<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Subtracts already reserved quantities in a single JDBC batch, without re-checking stock.
+     */
+    void applyStockDecrements(SortedMap<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Adds previously reserved or leased quantities back to the stock in a single JDBC batch.
+     */
+    void restoreStock(SortedMap<Long, Integer> quantitiesByProductId);
+}
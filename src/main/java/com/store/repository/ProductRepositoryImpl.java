@@ -0,0 +1,60 @@
+package com.store.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String DECREMENT_STOCK_SQL = """
+            UPDATE products
+            SET stock_quantity = stock_quantity - ?
+            WHERE id = ? AND stock_quantity >= ? AND active = TRUE
+            """;
+
+    private static final String APPLY_STOCK_DECREMENT_SQL = """
+            UPDATE products
+            SET stock_quantity = stock_quantity - ?
+            WHERE id = ?
+            """;
+
+    private static final String RESTORE_STOCK_SQL = """
+            UPDATE products
+            SET stock_quantity = stock_quantity + ?
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] decrementStock(SortedMap<Long, Integer> quantitiesByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByProductId.size());
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey(), entry.getValue()});
+        }
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batchArgs);
+    }
+
+    @Override
+    public void applyStockDecrements(SortedMap<Long, Integer> quantitiesByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByProductId.size());
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        jdbcTemplate.batchUpdate(APPLY_STOCK_DECREMENT_SQL, batchArgs);
+    }
+
+    @Override
+    public void restoreStock(SortedMap<Long, Integer> quantitiesByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByProductId.size());
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        jdbcTemplate.batchUpdate(RESTORE_STOCK_SQL, batchArgs);
+    }
+}
@@ -0,0 +1,53 @@
+package com.store.repository;
+
+import com.store.entity.ReportJobRecord;
+import com.store.entity.ReportJobRecord.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ReportJobRecordRepository extends JpaRepository<ReportJobRecord, String> {
+
+    long countByOwnerIdAndStatusIn(Long ownerId, Collection<Status> statuses);
+
+    @Modifying
+    @Query("UPDATE ReportJobRecord j SET j.status = :status, j.updatedAt = :now WHERE j.id = :id")
+    int updateStatus(@Param("id") String id, @Param("status") Status status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReportJobRecord j SET j.progress = :progress, j.updatedAt = :now WHERE j.id = :id")
+    int updateProgress(@Param("id") String id, @Param("progress") int progress, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE ReportJobRecord j
+            SET j.status = :status, j.error = :error, j.result = :result, j.completedAt = :now, j.updatedAt = :now
+            WHERE j.id = :id
+            """)
+    int finish(@Param("id") String id, @Param("status") Status status, @Param("error") String error,
+               @Param("result") String result, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReportJobRecord j SET j.updatedAt = :now WHERE j.id IN :ids")
+    int heartbeat(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    // Jobs de uma instância que caiu param de receber heartbeat e são encerrados por qualquer outra
+    @Modifying
+    @Query("""
+            UPDATE ReportJobRecord j
+            SET j.status = :failed, j.error = :error, j.completedAt = :now, j.updatedAt = :now
+            WHERE j.status IN :unfinished AND j.updatedAt < :staleBefore
+            """)
+    int failAbandoned(@Param("unfinished") Collection<Status> unfinished, @Param("staleBefore") LocalDateTime staleBefore,
+                      @Param("failed") Status failed, @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM ReportJobRecord j WHERE j.completedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
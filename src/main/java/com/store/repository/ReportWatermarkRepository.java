@@ -0,0 +1,19 @@
+package com.store.repository;
+
+import com.store.entity.ReportWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReportWatermarkRepository extends JpaRepository<ReportWatermark, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM ReportWatermark w WHERE w.name = :name")
+    Optional<ReportWatermark> lockByName(@Param("name") String name);
+}
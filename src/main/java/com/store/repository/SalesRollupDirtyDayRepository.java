@@ -0,0 +1,23 @@
+package com.store.repository;
+
+import com.store.entity.SalesRollupDirtyDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupDirtyDayRepository extends JpaRepository<SalesRollupDirtyDay, Long> {
+
+    @Query("SELECT DISTINCT d.day FROM SalesRollupDirtyDay d")
+    List<LocalDate> findDirtyDays();
+
+    @Modifying
+    @Query("DELETE FROM SalesRollupDirtyDay d WHERE d.markedAt < :markedBefore")
+    int deleteMarkedBefore(@Param("markedBefore") LocalDateTime markedBefore);
+}
@@ -0,0 +1,12 @@
+package com.store.repository.projection;
+
+import com.store.entity.Order.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row of the sales aggregation: orders and revenue of a single day and payment method.
+ */
+public record DailySalesAggregate(LocalDate day, PaymentMethod paymentMethod, long orderCount, BigDecimal totalSales) {
+}
@@ -0,0 +1,16 @@
+package com.store.repository.projection;
+
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.Order.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One exported order, read as a flat row so that streaming many orders keeps nothing in the persistence context.
+ */
+public record OrderExportRow(Long id, Long userId, OrderStatus status, PaymentMethod paymentMethod,
+                             BigDecimal shippingCost, BigDecimal taxAmount, BigDecimal discountAmount,
+                             BigDecimal totalAmount, String shippingAddress, String trackingNumber,
+                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
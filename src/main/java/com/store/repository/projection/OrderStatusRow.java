@@ -0,0 +1,12 @@
+package com.store.repository.projection;
+
+import com.store.entity.Order.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Current status, total and creation time of an order, read without loading the entity.
+ */
+public record OrderStatusRow(Long id, OrderStatus status, BigDecimal totalAmount, LocalDateTime createdAt) {
+}
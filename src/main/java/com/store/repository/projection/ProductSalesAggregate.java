@@ -0,0 +1,10 @@
+package com.store.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Units and revenue of one product on a single day, summed over the items of that day's orders.
+ */
+public record ProductSalesAggregate(LocalDate day, Long productId, long units, BigDecimal revenue) {
+}
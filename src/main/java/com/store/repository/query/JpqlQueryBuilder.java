@@ -0,0 +1,82 @@
+package com.store.repository.query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a JPQL statement from only the predicates that are actually present, so each filter
+ * combination produces its own small statement instead of one generic "(:x IS NULL OR ...)" query.
+ */
+public class JpqlQueryBuilder {
+
+    private final String alias;
+    private final List<String> predicates = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    public JpqlQueryBuilder(String alias) {
+        this.alias = alias;
+    }
+
+    public JpqlQueryBuilder where(String predicate, String parameter, Object value) {
+        if (value != null) {
+            predicates.add(predicate);
+            parameters.put(parameter, value);
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the result to rows strictly after the given position for an ORDER BY sortBy, id.
+     */
+    public JpqlQueryBuilder seek(String sortBy, Sort.Direction direction, Object value, Long id) {
+        String operator = direction.isAscending() ? ">" : "<";
+        String idPath = alias + ".id";
+        if ("id".equals(sortBy)) {
+            return where(idPath + " " + operator + " :seekId", "seekId", id);
+        }
+
+        String sortPath = alias + "." + sortBy;
+        predicates.add("(" + sortPath + " " + operator + " :seekValue OR ("
+                + sortPath + " = :seekValue AND " + idPath + " " + operator + " :seekId))");
+        parameters.put("seekValue", value);
+        parameters.put("seekId", id);
+        return this;
+    }
+
+    public String whereClause() {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    public String orderByClause(String sortBy, Sort.Direction direction) {
+        String orderBy = " ORDER BY " + alias + "." + sortBy + " " + direction.name();
+        return "id".equals(sortBy) ? orderBy : orderBy + ", " + alias + ".id " + direction.name();
+    }
+
+    /**
+     * ORDER BY for every order of the sort, with id appended as tiebreaker so OFFSET pages are stable.
+     */
+    public String orderByClause(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            orders.add(alias + "." + order.getProperty() + " " + order.getDirection().name());
+            hasId |= "id".equals(order.getProperty());
+        }
+        if (!hasId) {
+            orders.add(alias + ".id ASC");
+        }
+        return " ORDER BY " + String.join(", ", orders);
+    }
+
+    public <T> TypedQuery<T> createQuery(EntityManager entityManager, String selectFrom, String suffix, Class<T> type) {
+        TypedQuery<T> query = entityManager.createQuery(selectFrom + whereClause() + suffix, type);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,26 @@
+package com.store.security;
+
+import com.store.entity.enums.UserRole;
+
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * Principal rebuilt from the JWT claims, so the current user's id and roles are known
+ * for the whole request without a database lookup.
+ */
+public record AuthenticatedUser(Long id, String username, Set<UserRole> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public boolean hasRole(UserRole role) {
+        return roles.contains(role);
+    }
+
+    public boolean isAdmin() {
+        return hasRole(UserRole.ADMIN);
+    }
+}
@@ -1,7 +1,11 @@
 package com.store.security;
 
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,20 +18,38 @@ import java.security.Key;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    static final String ROLES_CLAIM = "roles";
+    static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final JwtAuthenticationCache authenticationCache;
+    private final UserIdResolver userIdResolver;
+
     @Value("${jwt.secret:default_secret_key_that_is_at_least_32_characters}")
     private String jwtSecret;
 
     @Value("${jwt.expiration:86400000}")
     private int jwtExpirationMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -38,47 +60,61 @@ public class JwtTokenProvider {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(authentication.getName())
-                .claim("roles", authorities)
+                .claim(ROLES_CLAIM, authorities);
+
+        if (authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            builder.claim(USER_ID_CLAIM, user.getId());
+        }
+
+        return builder
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return toAuthentication(jwtParser.parseClaimsJws(token).getBody());
+    }
 
-        Collection<? extends GrantedAuthority> authorities =
-                Arrays.stream(claims.get("roles").toString().split(","))
-                        .filter(auth -> !auth.trim().isEmpty())
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
+    /**
+     * Verifies the token at most once: a cached authentication is returned while the token is
+     * still valid, otherwise the token is parsed a single time and the result cached until it expires.
+     */
+    public Optional<Authentication> resolveAuthentication(String token) {
+        Optional<Authentication> cached = authenticationCache.get(token);
+        if (cached.isPresent()) {
+            return cached;
+        }
 
-        org.springframework.security.core.userdetails.User principal =
-                new org.springframework.security.core.userdetails.User(claims.getSubject(), "", authorities);
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return Optional.empty();
+        }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        Authentication authentication = toAuthentication(claims);
+        long expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().getTime()
+                : System.currentTimeMillis() + jwtExpirationMs;
+        authenticationCache.put(token, authentication, expiresAt);
+        return Optional.of(authentication);
     }
 
     public boolean validateToken(String token) {
+        return parseClaims(token) != null;
+    }
+
+    private Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (SignatureException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -90,6 +126,29 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    private Authentication toAuthentication(Claims claims) {
+        Collection<? extends GrantedAuthority> authorities =
+                Arrays.stream(claims.get(ROLES_CLAIM).toString().split(","))
+                        .filter(auth -> !auth.trim().isEmpty())
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList());
+
+        Set<UserRole> roles = authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> UserRole.valueOf(authority.substring(ROLE_PREFIX.length())))
+                .collect(Collectors.toUnmodifiableSet());
+
+        AuthenticatedUser principal = new AuthenticatedUser(resolveUserId(claims), claims.getSubject(), roles);
+
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private Long resolveUserId(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        return userId != null ? userId.longValue() : userIdResolver.resolve(claims.getSubject());
     }
-}
\ No newline at end of file
+}
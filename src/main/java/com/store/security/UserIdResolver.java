@@ -0,0 +1,36 @@
+package com.store.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.store.entity.User;
+import com.store.exceptions.UserNotFoundException;
+import com.store.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Resolves the user id for tokens issued before the id was carried as a claim.
+ */
+@Component
+public class UserIdResolver {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> idsByUsername;
+
+    public UserIdResolver(UserRepository userRepository,
+                          @Value("${jwt.user-id-cache.max-size:1000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+    }
+
+    public Long resolve(String username) {
+        return idsByUsername.get(username, key -> userRepository.findByUsername(key)
+                .map(User::getId)
+                .orElseThrow(() -> new UserNotFoundException("User not found")));
+    }
+}
@@ -0,0 +1,162 @@
+package com.store.service;
+
+import com.store.entity.DailySalesRollup;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.Order.PaymentMethod;
+import com.store.entity.ReportWatermark;
+import com.store.entity.SalesRollupDirtyDay;
+import com.store.repository.DailySalesRollupRepository;
+import com.store.repository.OrderRepository;
+import com.store.repository.ReportWatermarkRepository;
+import com.store.repository.SalesRollupDirtyDayRepository;
+import com.store.repository.projection.DailySalesAggregate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Maintains {@code daily_sales_rollup} and answers sales aggregations from it.
+ * <p>
+ * The refresh job recomputes every day that has an order updated since the last watermark, plus
+ * days marked dirty by deletes. The watermark is re-read with an overlap so that transactions which
+ * committed late, with an {@code updated_at} older than the previous run, are still picked up.
+ * Days from the watermark onwards, as well as partial days at the edges of a range, are always
+ * aggregated live from the orders table.
+ */
+@Service
+@Slf4j
+public class DailySalesRollupService {
+
+    static final String WATERMARK_NAME = "daily_sales_rollup";
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final SalesRollupDirtyDayRepository dirtyDayRepository;
+    private final ReportWatermarkRepository watermarkRepository;
+    private final OrderRepository orderRepository;
+    private final ReportCache reportCache;
+    private final TopProductsSketch topProductsSketch;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration overlap;
+
+    public DailySalesRollupService(DailySalesRollupRepository rollupRepository,
+                                   SalesRollupDirtyDayRepository dirtyDayRepository,
+                                   ReportWatermarkRepository watermarkRepository,
+                                   OrderRepository orderRepository,
+                                   ReportCache reportCache,
+                                   TopProductsSketch topProductsSketch,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${store.reports.sales-rollup-overlap-ms:300000}") long overlapMs) {
+        this.rollupRepository = rollupRepository;
+        this.dirtyDayRepository = dirtyDayRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.orderRepository = orderRepository;
+        this.reportCache = reportCache;
+        this.topProductsSketch = topProductsSketch;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.overlap = Duration.ofMillis(overlapMs);
+    }
+
+    /**
+     * Marks the creation day of a deleted order for recomputation. Must run in the deleting transaction.
+     */
+    public void markDirty(LocalDateTime orderCreatedAt) {
+        dirtyDayRepository.save(new SalesRollupDirtyDay(null, orderCreatedAt.toLocalDate(), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${store.reports.sales-rollup-refresh-ms:300000}",
+            initialDelayString = "${store.reports.sales-rollup-initial-delay-ms:60000}")
+    public void refresh() {
+        int days = transactionTemplate.execute(status -> refreshRollup());
+        if (days > 0) {
+            log.info("Daily sales rollup refreshed for {} day(s)", days);
+        }
+    }
+
+    private int refreshRollup() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        // O lock na linha do watermark serializa o job entre instâncias
+        ReportWatermark watermark = watermarkRepository.lockByName(WATERMARK_NAME)
+                .orElseGet(() -> new ReportWatermark(WATERMARK_NAME, null));
+
+        TreeSet<LocalDate> days = new TreeSet<>(watermark.getWatermark() == null
+                ? orderRepository.findAllCreationDays()
+                : orderRepository.findCreationDaysUpdatedSince(watermark.getWatermark().minus(overlap)));
+        days.addAll(dirtyDayRepository.findDirtyDays());
+
+        if (!days.isEmpty()) {
+            rollupRepository.recomputeDays(days);
+            // Alterações feitas por outras instâncias chegam aqui; relatórios e sketches desses dias saem do cache
+            reportCache.invalidateDays(days);
+            topProductsSketch.invalidateDays(days);
+        }
+        // Dias sujos continuam sendo recalculados durante a janela de sobreposição
+        dirtyDayRepository.deleteMarkedBefore(startedAt.minus(overlap));
+
+        watermark.setWatermark(startedAt);
+        watermarkRepository.save(watermark);
+        return days.size();
+    }
+
+    /**
+     * Aggregates orders of the given status created in {@code [startDate, endDate]}, one row per day
+     * and payment method. Whole days before the watermark come from the rollup; the rest is computed live.
+     */
+    public List<DailySalesAggregate> aggregate(LocalDateTime startDate, LocalDateTime endDate, OrderStatus status) {
+        LocalDate firstRollupDay = startDate.toLocalDate().atStartOfDay().equals(startDate)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate rollupEnd = min(endDate.toLocalDate(), coveredUntil());
+
+        if (!firstRollupDay.isBefore(rollupEnd)) {
+            return orderRepository.aggregateSalesByDayAndPaymentMethod(startDate, endDate, status);
+        }
+
+        List<DailySalesAggregate> rows = new ArrayList<>();
+        if (startDate.isBefore(firstRollupDay.atStartOfDay())) {
+            liveRows(startDate, firstRollupDay.atStartOfDay(), status).stream()
+                    .filter(row -> row.day().isBefore(firstRollupDay))
+                    .forEach(rows::add);
+        }
+        rollupRepository.findByStatusAndDayRange(status, firstRollupDay, rollupEnd).stream()
+                .map(DailySalesRollupService::toAggregate)
+                .forEach(rows::add);
+        liveRows(rollupEnd.atStartOfDay(), endDate, status).stream()
+                .filter(row -> !row.day().isBefore(rollupEnd))
+                .forEach(rows::add);
+        return rows;
+    }
+
+    private List<DailySalesAggregate> liveRows(LocalDateTime from, LocalDateTime to, OrderStatus status) {
+        return orderRepository.aggregateSalesByDayAndPaymentMethod(from, to, status);
+    }
+
+    // Primeiro dia que o rollup ainda não cobre por completo
+    private LocalDate coveredUntil() {
+        LocalDate today = LocalDate.now();
+        return watermarkRepository.findById(WATERMARK_NAME)
+                .map(ReportWatermark::getWatermark)
+                .map(watermark -> min(watermark.minus(overlap).toLocalDate(), today))
+                .orElse(LocalDate.MIN);
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static DailySalesAggregate toAggregate(DailySalesRollup rollup) {
+        PaymentMethod paymentMethod = DailySalesRollup.UNKNOWN_PAYMENT_METHOD.equals(rollup.getPaymentMethod())
+                ? null
+                : PaymentMethod.valueOf(rollup.getPaymentMethod());
+        return new DailySalesAggregate(rollup.getDay(), paymentMethod, rollup.getOrderCount(), rollup.getTotalSales());
+    }
+}
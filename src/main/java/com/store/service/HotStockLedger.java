@@ -0,0 +1,200 @@
+package com.store.service;
+
+import com.store.entity.Product;
+import com.store.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stock leases for "hot" products (flash sales). Each instance claims stock from
+ * {@code products.stock_quantity} in blocks, with the same guarded conditional UPDATE used by checkouts,
+ * and reserves against its block with a lock-free counter, so checkouts do not queue on the product row lock.
+ * <p>
+ * The row only holds stock that no instance has leased, so any number of instances can run in hot mode
+ * without overselling: when the local lease cannot cover a reservation the caller falls back to the guarded
+ * UPDATE on the row. Leases are topped up in the background and returned to the row when the product is
+ * edited, deactivated or leaves hot mode, and on shutdown. If the JVM dies its unused lease stays subtracted
+ * from the row, so a crash can undersell by at most one lease per instance, never oversell.
+ */
+@Component
+@Slf4j
+public class HotStockLedger {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCatalogCache catalogCache;
+    private final Set<Long> configuredProductIds;
+    private final int leaseSize;
+    private final Map<Long, AtomicInteger> leases = new ConcurrentHashMap<>();
+
+    public HotStockLedger(ProductRepository productRepository,
+                          PlatformTransactionManager transactionManager,
+                          ProductCatalogCache catalogCache,
+                          @Value("${store.stock.hot-products:}") Set<Long> configuredProductIds,
+                          @Value("${store.stock.hot-lease-size:100}") int leaseSize) {
+        this.productRepository = productRepository;
+        // Claims and returns commit on their own, also when called from afterCommit callbacks
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.catalogCache = catalogCache;
+        this.configuredProductIds = configuredProductIds;
+        this.leaseSize = leaseSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (configuredProductIds.isEmpty()) {
+            return;
+        }
+        productRepository.findAllById(configuredProductIds).forEach(this::enable);
+        log.info("Hot stock ledger tracking products {}", leases.keySet());
+    }
+
+    public boolean isHot(Long productId) {
+        return leases.containsKey(productId);
+    }
+
+    public void enable(Product product) {
+        leases.putIfAbsent(product.getId(), new AtomicInteger());
+        reload(product);
+    }
+
+    public void disable(Long productId) {
+        AtomicInteger lease = leases.remove(productId);
+        if (lease != null) {
+            giveBack(productId, lease.getAndSet(0));
+        }
+    }
+
+    /**
+     * Tops this instance's lease back up from the row, or returns it when the product is no longer active.
+     */
+    public void reload(Product product) {
+        AtomicInteger lease = leases.get(product.getId());
+        if (lease == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(product.getActive())) {
+            topUp(product.getId(), lease);
+        } else {
+            returnLease(product.getId());
+        }
+    }
+
+    /**
+     * Returns the unused part of this instance's lease to the row, e.g. before the stock is overwritten.
+     */
+    public void returnLease(Long productId) {
+        AtomicInteger lease = leases.get(productId);
+        if (lease != null) {
+            giveBack(productId, lease.getAndSet(0));
+        }
+    }
+
+    /**
+     * Reserves from the local lease only; {@code false} means the caller must reserve against the row.
+     */
+    public boolean tryReserve(Long productId, int quantity) {
+        AtomicInteger lease = leases.get(productId);
+        if (lease == null) {
+            return false;
+        }
+
+        int current;
+        do {
+            current = lease.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!lease.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    public void release(Long productId, int quantity) {
+        AtomicInteger lease = leases.get(productId);
+        if (lease != null) {
+            lease.addAndGet(quantity);
+        } else {
+            // O produto saiu do modo hot enquanto a reserva estava aberta
+            giveBack(productId, quantity);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${store.stock.hot-flush-interval-ms:1000}")
+    public synchronized void refill() {
+        leases.forEach(this::topUp);
+    }
+
+    private void topUp(Long productId, AtomicInteger lease) {
+        int missing = leaseSize - lease.get();
+        if (missing <= 0) {
+            return;
+        }
+        int claimed = claim(productId, missing);
+        if (claimed > 0) {
+            lease.addAndGet(claimed);
+        }
+    }
+
+    // Tenta o bloco inteiro; se o produto tem menos que isso, leva o que sobrou no momento
+    private int claim(Long productId, int quantity) {
+        try {
+            Integer claimed = transactionTemplate.execute(status -> {
+                int wanted = quantity;
+                while (wanted > 0) {
+                    if (productRepository.decrementStock(productId, wanted) == 1) {
+                        return wanted;
+                    }
+                    wanted = Math.min(wanted, productRepository.findActiveStockQuantity(productId).orElse(0));
+                }
+                return 0;
+            });
+            if (claimed != null && claimed > 0) {
+                catalogCache.evictProducts(List.of(productId));
+                return claimed;
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not claim hot stock lease for product {}", productId, ex);
+        }
+        return 0;
+    }
+
+    private void giveBack(Long productId, int quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        SortedMap<Long, Integer> quantities = new TreeMap<>(Map.of(productId, quantity));
+        try {
+            transactionTemplate.executeWithoutResult(status -> productRepository.restoreStock(quantities));
+            catalogCache.evictProducts(quantities.keySet());
+        } catch (RuntimeException ex) {
+            // Mantém o saldo no lease, se ainda existir, para não perder a venda
+            AtomicInteger lease = leases.get(productId);
+            if (lease != null) {
+                lease.addAndGet(quantity);
+            }
+            log.error("Could not return hot stock lease {} for product {}", quantity, productId, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leases.keySet().forEach(this::returnLease);
+    }
+}
@@ -0,0 +1,43 @@
+package com.store.service;
+
+import com.store.dto.CursorPageDTO;
+import com.store.repository.query.KeysetCursor;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Function;
+
+final class KeysetPages {
+
+    static final int DEFAULT_SIZE = 20;
+    static final int MAX_SIZE = 100;
+
+    private KeysetPages() {
+    }
+
+    static int size(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(requested, MAX_SIZE);
+    }
+
+    /**
+     * Monta a página a partir de linhas {@code [registro, valorDeOrdenacao]}, buscadas com limite {@code size + 1}:
+     * a linha extra só indica que existe uma próxima página.
+     */
+    static <T> CursorPageDTO<T> toCursorPage(List<Object[]> rows, int size, String sortBy, Sort.Direction direction,
+                                             Function<Object[], Long> idOf,
+                                             Function<List<Object[]>, List<T>> contentMapper) {
+        boolean hasNext = rows.size() > size;
+        List<Object[]> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = pageRows.get(pageRows.size() - 1);
+            nextCursor = KeysetCursor.of(sortBy, direction, idOf.apply(last), last[1]).encode();
+        }
+
+        return new CursorPageDTO<>(contentMapper.apply(pageRows), pageRows.size(), hasNext, nextCursor);
+    }
+}
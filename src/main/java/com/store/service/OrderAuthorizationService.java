@@ -4,6 +4,7 @@ import com.store.entity.Order;
 import com.store.entity.User;
 import com.store.exceptions.UserNotFoundException;
 import com.store.repository.UserRepository;
+import com.store.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -15,10 +16,29 @@ import org.springframework.stereotype.Service;
 public class OrderAuthorizationService {
     private final UserRepository userRepository;
 
-    public User getCurrentUser() {
+    public AuthenticatedUser getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        if (authentication == null) {
+            throw new UserNotFoundException("User not found");
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser;
+        }
+        if (principal instanceof User user) {
+            return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRoles());
+        }
+        throw new UserNotFoundException("User not found");
+    }
+
+    public Long getCurrentUserId() {
+        return getCurrentPrincipal().id();
+    }
+
+    // Referência sem SELECT, suficiente para associar o usuário a um pedido
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUserId());
     }
 
     public void checkOrderAccess(Order order) {
@@ -30,22 +50,17 @@ public class OrderAuthorizationService {
     }
 
     private void checkPermission(Order order, String action) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getCurrentPrincipal();
         if (!hasPermission(order, currentUser)) {
             throw new AccessDeniedException("You don't have permission to " + action + " this order");
         }
     }
 
-    private boolean hasPermission(Order order, User user) {
-        return isAdmin(user) || isOrderOwner(order, user);
-    }
-
-    private boolean isAdmin(User user) {
-        // Se possível, use enum de roles em vez de verificar diretamente com string
-        return user.getRoles().contains("ADMIN");
+    private boolean hasPermission(Order order, AuthenticatedUser user) {
+        return user.isAdmin() || isOrderOwner(order, user);
     }
 
-    private boolean isOrderOwner(Order order, User user) {
-        return order.getUser().getId().equals(user.getId());
+    public boolean isOrderOwner(Order order, AuthenticatedUser user) {
+        return order.getUser().getId().equals(user.id());
     }
 }
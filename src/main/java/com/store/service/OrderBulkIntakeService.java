@@ -0,0 +1,183 @@
+package com.store.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.BulkOrderResultDTO;
+import com.store.dto.BulkOrderResultDTO.OrderResult;
+import com.store.dto.OrderDTO;
+import com.store.entity.Order;
+import com.store.repository.OrderRepository;
+import com.store.service.ProductStockService.BatchReservation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Intake of many orders in one request. The body is read as a stream of {@link OrderDTO}s (NDJSON or a
+ * JSON array) and processed in chunks of {@code store.orders.bulk.chunk-size}: each chunk reserves stock
+ * for all its orders in one pass and saves orders and items in JDBC batches, in one transaction.
+ * <p>
+ * Orders fail individually (invalid payload, unknown product, no stock) without affecting the others;
+ * only an unexpected database error fails a whole chunk.
+ */
+@Service
+@Slf4j
+public class OrderBulkIntakeService {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final OrderCreationService orderCreationService;
+    private final ProductStockService productStockService;
+    private final OrderRepository orderRepository;
+    private final OrderStatusSummaryService orderStatusSummaryService;
+    private final ReportCache reportCache;
+    private final TopProductsSketch topProductsSketch;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxOrders;
+
+    public OrderBulkIntakeService(ObjectMapper objectMapper,
+                                  Validator validator,
+                                  OrderCreationService orderCreationService,
+                                  ProductStockService productStockService,
+                                  OrderRepository orderRepository,
+                                  OrderStatusSummaryService orderStatusSummaryService,
+                                  ReportCache reportCache,
+                                  TopProductsSketch topProductsSketch,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${store.orders.bulk.chunk-size:500}") int chunkSize,
+                                  @Value("${store.orders.bulk.max-orders:10000}") int maxOrders) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.orderCreationService = orderCreationService;
+        this.productStockService = productStockService;
+        this.orderRepository = orderRepository;
+        this.orderStatusSummaryService = orderStatusSummaryService;
+        this.reportCache = reportCache;
+        this.topProductsSketch = topProductsSketch;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxOrders = maxOrders;
+    }
+
+    public BulkOrderResultDTO intake(InputStream body) throws IOException {
+        List<OrderResult> results = new ArrayList<>();
+        List<IndexedOrder> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<OrderDTO> orders = objectMapper.readerFor(OrderDTO.class).readValues(body)) {
+            int index = 0;
+            while (true) {
+                OrderDTO orderDTO;
+                try {
+                    if (!orders.hasNextValue()) {
+                        break;
+                    }
+                    if (index >= maxOrders) {
+                        results.add(OrderResult.failed(index, "Bulk request limit of " + maxOrders + " orders exceeded"));
+                        break;
+                    }
+                    orderDTO = orders.nextValue();
+                } catch (JsonParseException ex) {
+                    // JSON quebrado: não dá para achar o início do próximo pedido com segurança
+                    results.add(OrderResult.failed(index, "Malformed JSON: " + ex.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException ex) {
+                    results.add(OrderResult.failed(index++, "Invalid order: " + ex.getOriginalMessage()));
+                    continue;
+                }
+
+                String violations = violations(orderDTO);
+                if (violations != null) {
+                    results.add(OrderResult.failed(index, violations));
+                } else {
+                    chunk.add(new IndexedOrder(index, orderDTO));
+                }
+                index++;
+
+                if (chunk.size() == chunkSize) {
+                    results.addAll(saveChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(saveChunk(chunk));
+        }
+
+        results.sort(Comparator.comparingInt(OrderResult::getIndex));
+        return BulkOrderResultDTO.of(results);
+    }
+
+    private List<OrderResult> saveChunk(List<IndexedOrder> chunk) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Map<Long, Integer>> quantities = chunk.stream()
+                        .map(indexed -> orderCreationService.quantitiesByProductId(indexed.order()))
+                        .toList();
+                BatchReservation reservation = productStockService.reserveBatch(quantities);
+
+                List<OrderResult> results = new ArrayList<>(chunk.size());
+                List<IndexedOrder> accepted = new ArrayList<>(chunk.size());
+                List<Order> orders = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    RuntimeException failure = reservation.failures().get(i);
+                    if (failure != null) {
+                        results.add(OrderResult.failed(chunk.get(i).index(), failure.getMessage()));
+                    } else {
+                        accepted.add(chunk.get(i));
+                        orders.add(orderCreationService.buildOrder(chunk.get(i).order(), reservation.productsById()));
+                    }
+                }
+
+                // ids vêm da sequência em blocos, então pedidos e itens saem em INSERTs em lote
+                orderRepository.saveAll(orders);
+                for (int i = 0; i < orders.size(); i++) {
+                    orderStatusSummaryService.recordCreated(orders.get(i));
+                    results.add(OrderResult.created(accepted.get(i).index(), orders.get(i).getId()));
+                }
+                orders.forEach(topProductsSketch::recordCreated);
+                reportCache.invalidateDays(orders.stream()
+                        .map(order -> order.getCreatedAt().toLocalDate())
+                        .collect(Collectors.toSet()));
+                return results;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Bulk order chunk of {} order(s) failed", chunk.size(), ex);
+            return chunk.stream()
+                    .map(indexed -> OrderResult.failed(indexed.index(), "Chunk could not be saved: " + ex.getMessage()))
+                    .toList();
+        }
+    }
+
+    private String violations(OrderDTO orderDTO) {
+        if (orderDTO == null) {
+            return "Order is empty";
+        }
+        Set<ConstraintViolation<OrderDTO>> violations = validator.validate(orderDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private record IndexedOrder(int index, OrderDTO order) {
+    }
+}
@@ -6,47 +6,76 @@ import com.store.entity.OrderItem;
 import com.store.entity.Product;
 import com.store.mapper.OrderMapper;
 import com.store.repository.OrderRepository;
+import com.store.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderCreationService {
     private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
     private final OrderAuthorizationService orderAuthorizationService;
     private final ProductStockService productStockService;
     private final OrderMapper orderMapper;
+    private final TopProductsSketch topProductsSketch;
 
+    // Número constante de round trips: um SELECT dos produtos, um batch de estoque e o batch de inserts
     public Order createOrder(OrderDTO orderDTO) {
-        Order order = orderMapper.toOrder(orderDTO); // simples e direto
-        List<OrderItem> items = createOrderItems(orderDTO, order);
+        Order order = mapOrderFromDTO(orderDTO);
+
+        Map<Long, Integer> quantitiesByProductId = quantitiesByProductId(orderDTO);
+        Map<Long, Product> productsById = loadProducts(quantitiesByProductId);
+        productStockService.validateAvailability(productsById, quantitiesByProductId);
+        productStockService.reserveStock(quantitiesByProductId);
+
+        Order saved = orderRepository.save(completeOrder(order, orderDTO, productsById));
+        topProductsSketch.recordCreated(saved);
+        return saved;
+    }
+
+    /**
+     * Builds an unsaved order for the current user from products already loaded and reserved by the caller.
+     */
+    public Order buildOrder(OrderDTO orderDTO, Map<Long, Product> productsById) {
+        return completeOrder(mapOrderFromDTO(orderDTO), orderDTO, productsById);
+    }
+
+    public Map<Long, Integer> quantitiesByProductId(OrderDTO orderDTO) {
+        return orderDTO.getItems().stream()
+                .collect(Collectors.toMap(
+                        OrderDTO.OrderItemDTO::getProductId,
+                        OrderDTO.OrderItemDTO::getQuantity,
+                        Integer::sum
+                ));
+    }
+
+    private Order completeOrder(Order order, OrderDTO orderDTO, Map<Long, Product> productsById) {
+        List<OrderItem> items = createOrderItems(orderDTO, order, productsById);
         order.setItems(items);
         order.recalculateTotal();
-        return orderRepository.save(order);
+        return order;
     }
+
     private Order mapOrderFromDTO(OrderDTO orderDTO) {
         Order order = orderMapper.toOrder(orderDTO);
-        order.setUser(orderAuthorizationService.getCurrentUser());
+        order.setUser(orderAuthorizationService.getCurrentUserReference());
         return order;
     }
 
-    private List<OrderItem> createOrderItems(OrderDTO orderDTO, Order order) {
-        return orderDTO.getItems().stream()
-                .map(itemDTO -> createOrderItem(itemDTO, order))
-                .toList(); // Java 16+ simplificado
+    private Map<Long, Product> loadProducts(Map<Long, Integer> quantitiesByProductId) {
+        return productRepository.findAllById(quantitiesByProductId.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
     }
 
-    private OrderItem createOrderItem(OrderDTO.OrderItemDTO itemDTO, Order order) {
-        Product product = productStockService.getAndValidateProduct(
-                itemDTO.getProductId(),
-                itemDTO.getQuantity()
-        );
-
-        return orderMapper.toOrderItem(itemDTO, order, product);
+    private List<OrderItem> createOrderItems(OrderDTO orderDTO, Order order, Map<Long, Product> productsById) {
+        return orderDTO.getItems().stream()
+                .map(itemDTO -> orderMapper.toOrderItem(itemDTO, order, productsById.get(itemDTO.getProductId())))
+                .toList(); // Java 16+ simplificado
     }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,168 @@
+package com.store.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.store.dto.OrderFilterDTO;
+import com.store.repository.OrderQueryRepository;
+import com.store.repository.projection.OrderExportRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Order export streamed straight to the response: rows come from a forward-only database cursor and are
+ * encoded one at a time into a fixed-size buffer, so memory use does not depend on how many orders match
+ * and the first bytes leave as soon as the first rows are fetched.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,user_id,status,payment_method,shipping_cost,tax_amount,"
+            + "discount_amount,total_amount,shipping_address,tracking_number,created_at,updated_at\n";
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final OrderAuthorizationService orderAuthorizationService;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public OrderExportService(OrderQueryRepository orderQueryRepository,
+                              OrderAuthorizationService orderAuthorizationService,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${store.orders.export.fetch-size:1000}") int fetchSize) {
+        this.orderQueryRepository = orderQueryRepository;
+        this.orderAuthorizationService = orderAuthorizationService;
+        // Sem flush por linha e sem fechar a resposta junto com o gerador
+        this.rowWriter = objectMapper.writerFor(OrderExportRow.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Prepares the export of the orders matching the filters. The user is resolved now, on the request thread;
+     * the query runs when the returned body is written.
+     */
+    public StreamingResponseBody export(OrderFilterDTO filterDTO, Format format) {
+        Long userId = filterDTO.isCurrentUserOnly() ? orderAuthorizationService.getCurrentUserId() : null;
+        return out -> {
+            long startedAt = System.currentTimeMillis();
+            long rows = transactionTemplate.execute(status -> write(filterDTO, userId, format, out));
+            log.info("Exported {} order(s) as {} in {} ms", rows, format, System.currentTimeMillis() - startedAt);
+        };
+    }
+
+    private long write(OrderFilterDTO filterDTO, Long userId, Format format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            long rows = format == Format.CSV
+                    ? writeCsv(filterDTO, userId, writer)
+                    : writeNdjson(filterDTO, userId, writer);
+            writer.flush();
+            return rows;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long writeCsv(OrderFilterDTO filterDTO, Long userId, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.flush();
+        return orderQueryRepository.streamExportRows(filterDTO, userId, fetchSize, row -> {
+            try {
+                writeCsvRow(writer, row);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private long writeNdjson(OrderFilterDTO filterDTO, Long userId, Writer writer) throws IOException {
+        long rows;
+        try (SequenceWriter sequence = rowWriter.writeValues(writer)) {
+            rows = orderQueryRepository.streamExportRows(filterDTO, userId, fetchSize, row -> {
+                try {
+                    sequence.write(row);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        if (rows > 0) {
+            writer.write('\n');
+        }
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer writer, OrderExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writeCsvField(writer, row.userId());
+        writeCsvField(writer, row.status());
+        writeCsvField(writer, row.paymentMethod());
+        writeCsvField(writer, row.shippingCost() == null ? null : row.shippingCost().toPlainString());
+        writeCsvField(writer, row.taxAmount() == null ? null : row.taxAmount().toPlainString());
+        writeCsvField(writer, row.discountAmount() == null ? null : row.discountAmount().toPlainString());
+        writeCsvField(writer, row.totalAmount().toPlainString());
+        writeCsvField(writer, row.shippingAddress());
+        writeCsvField(writer, row.trackingNumber());
+        writeCsvField(writer, row.createdAt());
+        writeCsvField(writer, row.updatedAt());
+        writer.write('\n');
+    }
+
+    // RFC 4180: campos com vírgula, aspas ou quebra de linha vão entre aspas, com aspas duplicadas
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = Objects.toString(value);
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String fileExtension() {
+            return name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.store.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.store.dto.OrderDTO;
+import com.store.entity.IdempotencyRecord;
+import com.store.exceptions.IdempotencyKeyConflictException;
+import com.store.exceptions.IdempotencyKeyInProgressException;
+import com.store.exceptions.InvalidIdempotencyKeyException;
+import com.store.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Order creation with an {@code Idempotency-Key}: a retried request gets the stored {@link OrderDTO}
+ * back instead of creating another order and reserving stock again.
+ * <p>
+ * Lookups go through a bounded in-memory cache of completed keys, then the {@code idempotency_keys}
+ * table. Duplicates arriving while the first request is still running wait for it: on this instance
+ * through a per-key future, across instances on the primary key claimed at the start of the creating
+ * transaction. Keys are scoped to the current user and expire after {@code store.idempotency.ttl}.
+ */
+@Service
+@Slf4j
+public class OrderIdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderService orderService;
+    private final OrderAuthorizationService orderAuthorizationService;
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Cache<Scope, StoredResponse> completed;
+    private final ConcurrentMap<Scope, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   OrderAuthorizationService orderAuthorizationService,
+                                   IdempotencyRecordRepository recordRepository,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${store.idempotency.ttl:24h}") Duration ttl,
+                                   @Value("${store.idempotency.wait-timeout:30s}") Duration waitTimeout,
+                                   @Value("${store.idempotency.cache-size:10000}") long cacheSize,
+                                   MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.orderAuthorizationService = orderAuthorizationService;
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "orders.idempotency");
+    }
+
+    /**
+     * Creates the order, or replays the response stored for the key. Without a key the order is simply created.
+     */
+    public Result createOrder(String idempotencyKey, OrderDTO orderDTO) {
+        if (idempotencyKey == null) {
+            return new Result(orderService.createOrder(orderDTO), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Scope scope = new Scope(orderAuthorizationService.getCurrentUserId(), idempotencyKey);
+        String requestHash = hash(orderDTO);
+        while (true) {
+            StoredResponse cached = completed.getIfPresent(scope);
+            if (cached != null) {
+                return replay(scope, cached, requestHash);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> leader = inFlight.putIfAbsent(scope, mine);
+            if (leader != null) {
+                StoredResponse response = await(scope, leader);
+                if (response != null) {
+                    return replay(scope, response, requestHash);
+                }
+                // a primeira requisição falhou sem gravar nada: esta tenta de novo
+                continue;
+            }
+
+            try {
+                Result result = createOrReplay(scope, requestHash, orderDTO);
+                StoredResponse response = new StoredResponse(requestHash, write(result.order()));
+                completed.put(scope, response);
+                mine.complete(response);
+                return result;
+            } catch (RuntimeException ex) {
+                mine.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inFlight.remove(scope, mine);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${store.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int removed = transactionTemplate.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+        if (removed > 0) {
+            log.debug("Removed {} expired idempotency key(s)", removed);
+        }
+    }
+
+    private Result createOrReplay(Scope scope, String requestHash, OrderDTO orderDTO) {
+        Optional<StoredResponse> stored = findStored(scope);
+        if (stored.isPresent()) {
+            return replay(scope, stored.get(), requestHash);
+        }
+
+        try {
+            OrderDTO created = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                recordRepository.deleteIfExpired(scope.userId(), scope.key(), now);
+                // bloqueia aqui se outra instância já reservou a chave e ainda não terminou
+                recordRepository.claim(scope.userId(), scope.key(), requestHash, now.plus(ttl));
+                OrderDTO order = orderService.createOrder(orderDTO);
+                recordRepository.complete(scope.userId(), scope.key(), order.getId(), write(order));
+                return order;
+            });
+            return new Result(created, false);
+        } catch (DataIntegrityViolationException ex) {
+            // outra instância gravou a mesma chave primeiro; a nossa transação foi desfeita
+            return replay(scope, findStored(scope).orElseThrow(() -> ex), requestHash);
+        }
+    }
+
+    private Optional<StoredResponse> findStored(Scope scope) {
+        return recordRepository.findById(new IdempotencyRecord.Key(scope.userId(), scope.key()))
+                .filter(record -> record.getResponse() != null)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> new StoredResponse(record.getRequestHash(), record.getResponse()));
+    }
+
+    private StoredResponse await(Scope scope, CompletableFuture<StoredResponse> leader) {
+        try {
+            return leader.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            return null;
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInProgressException(scope.key());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(scope.key());
+        }
+    }
+
+    private Result replay(Scope scope, StoredResponse response, String requestHash) {
+        if (!response.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(scope.key());
+        }
+        completed.put(scope, response);
+        try {
+            return new Result(objectMapper.readValue(response.json(), OrderDTO.class), true);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response for Idempotency-Key " + scope.key() + " is unreadable", ex);
+        }
+    }
+
+    private String write(OrderDTO orderDTO) {
+        try {
+            return objectMapper.writeValueAsString(orderDTO);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Order could not be serialized", ex);
+        }
+    }
+
+    private String hash(OrderDTO orderDTO) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(write(orderDTO).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public record Result(OrderDTO order, boolean replayed) {
+    }
+
+    private record Scope(Long userId, String key) {
+    }
+
+    private record StoredResponse(String requestHash, String json) {
+    }
+}
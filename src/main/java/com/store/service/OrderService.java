@@ -1,29 +1,43 @@
 package com.store.service;
 
+import com.store.dto.BulkStatusUpdateDTO;
+import com.store.dto.BulkStatusUpdateResultDTO;
+import com.store.dto.CursorPageDTO;
 import com.store.dto.OrderDTO;
 import com.store.dto.OrderFilterDTO;
 import com.store.entity.Order;
 import com.store.entity.Order.OrderStatus;
 import com.store.mapper.OrderMapper;
+import com.store.repository.OrderQueryRepository;
 import com.store.repository.OrderRepository;
+import com.store.repository.query.KeysetCursor;
 import com.store.exceptions.OrderNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
     private final OrderRepository orderRepository;
+    private final OrderQueryRepository orderQueryRepository;
     private final OrderMapper orderMapper;
     private final OrderCreationService orderCreationService;
     private final OrderUpdateService orderUpdateService;
     private final OrderAuthorizationService orderAuthorizationService;
     private final OrderStatusService orderStatusService;
+    private final OrderStatusSummaryService orderStatusSummaryService;
+    private final DailySalesRollupService dailySalesRollupService;
+    private final ReportCache reportCache;
 
     private Order getOrderById(Long id) {
         return orderRepository.findById(id)
@@ -42,17 +56,49 @@ public class OrderService {
 
         // Get current user ID if needed
         Long userId = filterDTO.isCurrentUserOnly() ?
-                orderAuthorizationService.getCurrentUser().getId() : null;
-
-        return orderRepository.findOrdersByFilters(
-                filterDTO.getStartDate(),
-                filterDTO.getEndDate(),
-                filterDTO.getStatus(),
-                filterDTO.getMinAmount(),
-                filterDTO.getMaxAmount(),
-                userId,
-                pageable
-        ).map(orderMapper::toDTO);
+                orderAuthorizationService.getCurrentUserId() : null;
+
+        Page<Long> orderIds = orderQueryRepository.findIdsPage(filterDTO, userId, pageable);
+        return toOrderDTOPage(orderIds);
+    }
+
+    // Paginação por cursor (keyset): sem OFFSET e sem COUNT, custo constante em qualquer profundidade
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> scrollOrders(OrderFilterDTO filterDTO, String after, Integer size,
+                                                String sortBy, Sort.Direction direction) {
+        KeysetCursor cursor = after == null ? null : KeysetCursor.decode(after);
+        String effectiveSortBy = cursor != null ? cursor.sortBy() : sortBy;
+        Sort.Direction effectiveDirection = cursor != null ? cursor.direction() : direction;
+        int pageSize = KeysetPages.size(size);
+
+        Long userId = filterDTO.isCurrentUserOnly() ?
+                orderAuthorizationService.getCurrentUserId() : null;
+
+        List<Object[]> rows = orderQueryRepository.scrollIds(
+                filterDTO, userId, effectiveSortBy, effectiveDirection, cursor, pageSize + 1);
+
+        return KeysetPages.toCursorPage(rows, pageSize, effectiveSortBy, effectiveDirection,
+                row -> (Long) row[0],
+                pageRows -> toOrderDTOs(pageRows.stream().map(row -> (Long) row[0]).toList()));
+    }
+
+    private Page<OrderDTO> toOrderDTOPage(Page<Long> orderIds) {
+        List<OrderDTO> orders = toOrderDTOs(orderIds.getContent());
+        return new PageImpl<>(orders, orderIds.getPageable(), orderIds.getTotalElements());
+    }
+
+    // Carrega os pedidos com seus itens em uma consulta, preservando a ordem dos ids
+    private List<OrderDTO> toOrderDTOs(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Order> ordersById = orderRepository.findWithItemsByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        return orderIds.stream()
+                .map(id -> orderMapper.toDTO(ordersById.get(id)))
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -64,24 +110,36 @@ public class OrderService {
 
     @Transactional
     public OrderDTO createOrder(OrderDTO orderDTO) {
-        return orderMapper.toDTO(orderCreationService.createOrder(orderDTO));
+        Order order = orderCreationService.createOrder(orderDTO);
+        orderStatusSummaryService.recordCreated(order);
+        reportCache.invalidate(order.getCreatedAt());
+        return orderMapper.toDTO(order);
     }
 
     @Transactional
     public OrderDTO updateOrder(OrderDTO orderDTO) {
-        return orderUpdateService.updateOrder(orderDTO);
+        OrderDTO updated = orderUpdateService.updateOrder(orderDTO);
+        reportCache.invalidate(updated.getCreatedAt());
+        return updated;
     }
 
     @Transactional
     public OrderDTO updateOrderStatus(Long id, OrderStatus status) {
-        return orderMapper.toDTO(orderStatusService.updateOrderStatus(id, status));
+        Order order = orderStatusService.updateOrderStatus(id, status);
+        reportCache.invalidate(order.getCreatedAt());
+        return orderMapper.toDTO(order);
+    }
+
+    public BulkStatusUpdateResultDTO updateOrderStatuses(BulkStatusUpdateDTO request) {
+        return orderStatusService.updateOrderStatuses(request.getOrderIds(), request.getStatus());
     }
 
     @Transactional
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
-            throw new OrderNotFoundException(id);
-        }
-        orderRepository.deleteById(id);
+        Order order = getOrderById(id);
+        orderStatusSummaryService.recordDeleted(order);
+        dailySalesRollupService.markDirty(order.getCreatedAt());
+        reportCache.invalidate(order.getCreatedAt());
+        orderRepository.delete(order);
     }
 }
\ No newline at end of file
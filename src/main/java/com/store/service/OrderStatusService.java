@@ -1,50 +1,129 @@
 package com.store.service;
 
+import com.store.dto.BulkStatusUpdateResultDTO;
+import com.store.dto.BulkStatusUpdateResultDTO.OrderStatusResult;
+import com.store.dto.BulkStatusUpdateResultDTO.Outcome;
 import com.store.entity.Order;
 import com.store.entity.Order.OrderStatus;
-import com.store.entity.User;
 import com.store.exceptions.InvalidOrderStatusException;
 import com.store.exceptions.OrderAccessDeniedException;
 import com.store.repository.OrderRepository;
+import com.store.repository.projection.OrderStatusRow;
+import com.store.security.AuthenticatedUser;
+import com.store.util.Money;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class OrderStatusService {
 
+    // Fluxo do armazém usado nas atualizações em lote; CANCELLED e REFUNDED são finais
+    private static final Map<OrderStatus, Set<OrderStatus>> BULK_TRANSITIONS = new EnumMap<>(Map.of(
+            OrderStatus.PENDING, Set.of(OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.CANCELLED),
+            OrderStatus.PROCESSING, Set.of(OrderStatus.SHIPPED, OrderStatus.CANCELLED),
+            OrderStatus.SHIPPED, Set.of(OrderStatus.DELIVERED),
+            OrderStatus.DELIVERED, Set.of(OrderStatus.REFUNDED)
+    ));
+
     private final OrderRepository orderRepository;
     private final OrderAuthorizationService orderAuthorizationService;
+    private final OrderStatusSummaryService orderStatusSummaryService;
+    private final ReportCache reportCache;
 
     @Transactional
     public Order updateOrderStatus(Long id, OrderStatus newStatus) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + id));
 
-        User currentUser = orderAuthorizationService.getCurrentUser();
+        AuthenticatedUser currentUser = orderAuthorizationService.getCurrentPrincipal();
 
         validateStatusUpdate(order, newStatus, currentUser);
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
+        orderStatusSummaryService.recordChanged(previousStatus, order.getTotalAmount(), order);
         return orderRepository.save(order);
     }
 
-    private void validateStatusUpdate(Order order, OrderStatus newStatus, User currentUser) {
-        if (isAdmin(currentUser)) return;
+    /**
+     * Moves many orders to {@code newStatus} at once. Transitions are checked against the rows read in one
+     * locking query, then applied with one {@code UPDATE ... WHERE id IN (...) AND status = ?} per current
+     * status. Each id gets its own outcome; invalid or unknown ids do not stop the others.
+     */
+    @Transactional
+    public BulkStatusUpdateResultDTO updateOrderStatuses(List<Long> ids, OrderStatus newStatus) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, OrderStatusRow> rows = orderRepository.findStatusRowsByIdInForUpdate(requested).stream()
+                .collect(Collectors.toMap(OrderStatusRow::id, Function.identity()));
+
+        Map<Long, OrderStatusResult> results = new LinkedHashMap<>();
+        Map<OrderStatus, List<OrderStatusRow>> byCurrentStatus = new EnumMap<>(OrderStatus.class);
+        for (Long id : requested) {
+            OrderStatusRow row = rows.get(id);
+            if (row == null) {
+                results.put(id, new OrderStatusResult(id, Outcome.NOT_FOUND, null, "Order not found with id: " + id));
+            } else if (row.status() == newStatus) {
+                results.put(id, new OrderStatusResult(id, Outcome.UNCHANGED, row.status(), null));
+            } else if (!BULK_TRANSITIONS.getOrDefault(row.status(), Set.of()).contains(newStatus)) {
+                results.put(id, new OrderStatusResult(id, Outcome.INVALID_TRANSITION, row.status(),
+                        "Cannot change status from " + row.status() + " to " + newStatus));
+            } else {
+                results.put(id, null);
+                byCurrentStatus.computeIfAbsent(row.status(), status -> new ArrayList<>()).add(row);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<LocalDate> changedDays = new HashSet<>();
+        byCurrentStatus.forEach((currentStatus, group) -> {
+            List<Long> groupIds = group.stream().map(OrderStatusRow::id).sorted().toList();
+            int updated = orderRepository.updateStatus(groupIds, currentStatus, newStatus, now);
+            if (updated != groupIds.size()) {
+                // as linhas estão bloqueadas desde a leitura; diferença aqui é erro, não concorrência
+                throw new IllegalStateException("Expected to update " + groupIds.size() + " order(s) from "
+                        + currentStatus + " but updated " + updated);
+            }
+
+            Money movedValue = Money.ZERO;
+            for (OrderStatusRow row : group) {
+                movedValue = movedValue.plus(Money.of(row.totalAmount(), RoundingMode.HALF_UP));
+                changedDays.add(row.createdAt().toLocalDate());
+                results.put(row.id(), new OrderStatusResult(row.id(), Outcome.UPDATED, currentStatus, null));
+            }
+            orderStatusSummaryService.recordMoved(currentStatus, newStatus, group.size(), movedValue);
+        });
+        reportCache.invalidateDays(changedDays);
+
+        return BulkStatusUpdateResultDTO.of(newStatus, new ArrayList<>(results.values()));
+    }
+
+    private void validateStatusUpdate(Order order, OrderStatus newStatus, AuthenticatedUser currentUser) {
+        if (currentUser.isAdmin()) return;
 
         validateUserOwnership(order, currentUser);
         validateStatusPermission(newStatus);
         validatePendingCancellation(order, newStatus);
     }
 
-    private boolean isAdmin(User user) {
-        return user.getRoles().contains("ADMIN");
-    }
-
-    private void validateUserOwnership(Order order, User user) {
-        if (!order.getUser().getId().equals(user.getId())) {
+    private void validateUserOwnership(Order order, AuthenticatedUser user) {
+        if (!orderAuthorizationService.isOrderOwner(order, user)) {
             throw new OrderAccessDeniedException("You don't have permission to update this order");
         }
     }
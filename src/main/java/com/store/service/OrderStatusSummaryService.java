@@ -0,0 +1,217 @@
+package com.store.service;
+
+import com.store.dto.ReportDTO.OrderStatusReportDTO;
+import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.OrderStatusSummary;
+import com.store.repository.OrderRepository;
+import com.store.repository.OrderStatusSummaryRepository;
+import com.store.util.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps order count and total value per status in {@code order_status_summary}, updated in the same
+ * transaction as each create, status change and delete, plus an in-memory mirror that serves the
+ * status report without touching the orders table.
+ * <p>
+ * Deltas are accumulated per transaction and written right before commit, so the summary rows are
+ * only locked for the last statement of the transaction.
+ */
+@Service
+@Slf4j
+public class OrderStatusSummaryService {
+
+    private final OrderStatusSummaryRepository summaryRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<OrderStatus, StatusTotals> mirror = new EnumMap<>(OrderStatus.class);
+
+    public OrderStatusSummaryService(OrderStatusSummaryRepository summaryRepository,
+                                     OrderRepository orderRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void recordCreated(Order order) {
+        record(order.getStatus(), 1, money(order.getTotalAmount()));
+    }
+
+    public void recordChanged(OrderStatus previousStatus, BigDecimal previousTotal, Order order) {
+        if (previousStatus == order.getStatus() && previousTotal.compareTo(order.getTotalAmount()) == 0) {
+            return;
+        }
+        record(previousStatus, -1, money(previousTotal).negate());
+        record(order.getStatus(), 1, money(order.getTotalAmount()));
+    }
+
+    /**
+     * Moves {@code count} orders worth {@code value} in total from one status to another, for set-based updates.
+     */
+    public void recordMoved(OrderStatus from, OrderStatus to, long count, Money value) {
+        if (from == to || count == 0) {
+            return;
+        }
+        record(from, -count, value.negate());
+        record(to, count, value);
+    }
+
+    public void recordDeleted(Order order) {
+        record(order.getStatus(), -1, money(order.getTotalAmount()).negate());
+    }
+
+    public synchronized OrderStatusReportDTO snapshot() {
+        Map<OrderStatus, StatusTotals> current = new EnumMap<>(OrderStatus.class);
+        mirror.forEach((status, totals) -> {
+            if (totals.count() > 0) {
+                current.put(status, totals);
+            }
+        });
+        return toReport(current);
+    }
+
+    /**
+     * Recomputes the summary from the orders table. Locking the summary rows first makes concurrent
+     * status changes wait, so none of them is counted twice or lost while the totals are replaced.
+     */
+    public OrderStatusReportDTO rebuild() {
+        OrderStatusReportDTO report = transactionTemplate.execute(status -> rebuildRows());
+        reload();
+        log.info("Order status summary rebuilt from orders table");
+        return report;
+    }
+
+    private OrderStatusReportDTO rebuildRows() {
+        Map<OrderStatus, OrderStatusSummary> rows = new EnumMap<>(OrderStatus.class);
+        summaryRepository.lockAll().forEach(row -> rows.put(row.getStatus(), row));
+
+        Map<OrderStatus, StatusTotals> actual = new EnumMap<>(OrderStatus.class);
+        for (Object[] row : orderRepository.summarizeByStatus()) {
+            actual.put((OrderStatus) row[0], new StatusTotals((Long) row[1], money((BigDecimal) row[2])));
+        }
+
+        for (OrderStatus status : OrderStatus.values()) {
+            StatusTotals totals = actual.getOrDefault(status, StatusTotals.EMPTY);
+            OrderStatusSummary row = rows.getOrDefault(status, new OrderStatusSummary(status, 0L, BigDecimal.ZERO));
+            row.setOrderCount(totals.count());
+            row.setTotalValue(totals.value().toBigDecimal());
+            summaryRepository.save(row);
+        }
+        return toReport(actual);
+    }
+
+    @Scheduled(fixedDelayString = "${store.reports.status-summary-refresh-ms:30000}")
+    public void reload() {
+        List<OrderStatusSummary> rows = summaryRepository.findAll();
+        synchronized (this) {
+            mirror.clear();
+            rows.forEach(row -> mirror.put(row.getStatus(), new StatusTotals(row.getOrderCount(), money(row.getTotalValue()))));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (summaryRepository.count() < OrderStatus.values().length) {
+            rebuild();
+        } else {
+            reload();
+        }
+    }
+
+    private static OrderStatusReportDTO toReport(Map<OrderStatus, StatusTotals> totalsByStatus) {
+        Map<String, Integer> countByStatus = new HashMap<>();
+        Map<String, BigDecimal> valueByStatus = new HashMap<>();
+        long totalOrders = 0;
+        Money totalValue = Money.ZERO;
+        for (Map.Entry<OrderStatus, StatusTotals> entry : totalsByStatus.entrySet()) {
+            StatusTotals totals = entry.getValue();
+            countByStatus.put(entry.getKey().toString(), (int) totals.count());
+            valueByStatus.put(entry.getKey().toString(), totals.value().toBigDecimal());
+            totalOrders += totals.count();
+            totalValue = totalValue.plus(totals.value());
+        }
+        return new OrderStatusReportDTO(countByStatus, valueByStatus, (int) totalOrders, totalValue.toBigDecimal());
+    }
+
+    // Valores entram com duas casas, como na coluna total_amount
+    private static Money money(BigDecimal value) {
+        return Money.of(value, RoundingMode.HALF_UP);
+    }
+
+    private void record(OrderStatus status, long countDelta, Money valueDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Order status summary must be updated inside a transaction");
+        }
+
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(status, countDelta, valueDelta);
+    }
+
+    private synchronized void applyToMirror(Map<OrderStatus, StatusTotals> deltas) {
+        deltas.forEach((status, delta) -> mirror.merge(status, delta, StatusTotals::plus));
+    }
+
+    private record StatusTotals(long count, Money value) {
+        static final StatusTotals EMPTY = new StatusTotals(0, Money.ZERO);
+
+        StatusTotals plus(StatusTotals other) {
+            return new StatusTotals(count + other.count, value.plus(other.value));
+        }
+    }
+
+    private class PendingDeltas implements TransactionSynchronization {
+
+        // Ordenado pelo nome, a mesma ordem do lockAll(), para evitar deadlocks entre transações
+        private final Map<OrderStatus, StatusTotals> deltas = new TreeMap<>(Comparator.comparing(OrderStatus::name));
+
+        void add(OrderStatus status, long countDelta, Money valueDelta) {
+            deltas.merge(status, new StatusTotals(countDelta, valueDelta), StatusTotals::plus);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            deltas.forEach((status, delta) -> {
+                if (delta.count() == 0 && delta.value().isZero()) {
+                    return;
+                }
+                BigDecimal valueDelta = delta.value().toBigDecimal();
+                if (summaryRepository.applyDelta(status, delta.count(), valueDelta) == 0) {
+                    summaryRepository.save(new OrderStatusSummary(status, delta.count(), valueDelta));
+                }
+            });
+        }
+
+        @Override
+        public void afterCommit() {
+            applyToMirror(deltas);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OrderStatusSummaryService.this);
+        }
+    }
+}
@@ -2,11 +2,15 @@ package com.store.service;
 
 import com.store.dto.OrderDTO;
 import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
 import com.store.exceptions.OrderNotFoundException;
 import com.store.mapper.OrderMapper;
 import com.store.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
 
 @Service
 @RequiredArgsConstructor
@@ -14,16 +18,22 @@ public class OrderUpdateService {
     private final OrderRepository orderRepository;
     private final OrderAuthorizationService orderAuthorizationService;
     private final OrderMapper orderMapper;
+    private final OrderStatusSummaryService orderStatusSummaryService;
 
+    @Transactional
     public OrderDTO updateOrder(OrderDTO orderDTO) {
         Order order = orderRepository.findById(orderDTO.getId())
                 .orElseThrow(() -> new OrderNotFoundException(orderDTO.getId()));
 
         orderAuthorizationService.checkOrderUpdatePermission(order);
 
+        OrderStatus previousStatus = order.getStatus();
+        BigDecimal previousTotal = order.getTotalAmount();
+
         orderMapper.updateOrderFromDTO(orderDTO, order);
 
         order.recalculateTotal();
+        orderStatusSummaryService.recordChanged(previousStatus, previousTotal, order);
 
         return orderMapper.toDTO(orderRepository.save(order));
     }
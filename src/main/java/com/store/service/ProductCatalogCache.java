@@ -0,0 +1,153 @@
+package com.store.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.store.dto.ProductDTO;
+import com.store.dto.ProductFilterDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache of the public catalog: {@link ProductDTO}s by id and, per filter and page,
+ * the ids and total count of the matching products.
+ * <p>
+ * Writers call the invalidation methods after their transaction commits. A product change only drops
+ * its own entry and the filter results it belonged to before or matches after the change, so unrelated
+ * listings stay cached. Readers capture {@link #generation()} before querying the database and their
+ * results are discarded if an invalidation ran meanwhile, so a slow read never re-caches stale data.
+ * Writes made by other instances reach this cache through {@link ProductCatalogCacheSync}; the TTL is
+ * only a backstop.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private final Cache<Long, ProductDTO> products;
+    private final Cache<FilterKey, FilterResult> filterResults;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCatalogCache(@Value("${store.catalog.cache.max-products:10000}") long maxProducts,
+                               @Value("${store.catalog.cache.max-filter-results:1000}") long maxFilterResults,
+                               @Value("${store.catalog.cache.ttl:10m}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxProducts)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.filterResults = Caffeine.newBuilder()
+                .maximumSize(maxFilterResults)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "catalog.products");
+        CaffeineCacheMetrics.monitor(meterRegistry, filterResults, "catalog.filters");
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public ProductDTO getProduct(Long id) {
+        return products.getIfPresent(id);
+    }
+
+    public Map<Long, ProductDTO> getProducts(Collection<Long> ids) {
+        return products.getAllPresent(ids);
+    }
+
+    public FilterResult getFilterResult(FilterKey key) {
+        return filterResults.getIfPresent(key);
+    }
+
+    public void putProducts(long readGeneration, Collection<ProductDTO> dtos) {
+        dtos.forEach(dto -> products.put(dto.getId(), dto));
+        if (generation.get() != readGeneration) {
+            products.invalidateAll(dtos.stream().map(ProductDTO::getId).toList());
+        }
+    }
+
+    public void putFilterResult(long readGeneration, FilterKey key, FilterResult result) {
+        filterResults.put(key, result);
+        if (generation.get() != readGeneration) {
+            filterResults.invalidate(key);
+        }
+    }
+
+    /**
+     * Drops cached products whose stock changed. Stock is not part of any filter, so listings stay cached.
+     */
+    public void evictProducts(Collection<Long> ids) {
+        generation.incrementAndGet();
+        products.invalidateAll(ids);
+    }
+
+    /**
+     * Drops a created, updated or deleted product and every cached listing it affects. Either
+     * argument may be null: {@code before} for a new product, {@code after} for a deleted one.
+     */
+    public void productChanged(Long id, ProductDTO before, ProductDTO after) {
+        generation.incrementAndGet();
+        products.invalidate(id);
+        filterResults.asMap().keySet().removeIf(key ->
+                (before != null && key.matches(before)) || (after != null && key.matches(after)));
+    }
+
+    /**
+     * Drops products changed elsewhere (e.g. by another instance). Their previous state is unknown here,
+     * so every cached listing is dropped as well.
+     */
+    public void productsChangedElsewhere(Collection<Long> ids) {
+        generation.incrementAndGet();
+        products.invalidateAll(ids);
+        filterResults.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        products.invalidateAll();
+        filterResults.invalidateAll();
+    }
+
+    public record FilterResult(List<Long> ids, long totalElements) {
+    }
+
+    /**
+     * Cache key of one page of {@code ProductService.findProductsByFilters}. {@link #matches(ProductDTO)}
+     * mirrors the WHERE clause of {@code ProductRepository.findProductsByFilters}.
+     */
+    public record FilterKey(String category, String description, BigDecimal minPrice, BigDecimal maxPrice,
+                            Boolean active, int page, int size, String sort) {
+
+        public static FilterKey of(ProductFilterDTO filterDTO, Pageable pageable) {
+            return new FilterKey(
+                    filterDTO.getCategory(),
+                    filterDTO.getDescription(),
+                    filterDTO.getMinPrice(),
+                    filterDTO.getMaxPrice(),
+                    filterDTO.getActive(),
+                    pageable.getPageNumber(),
+                    pageable.getPageSize(),
+                    pageable.getSort().toString()
+            );
+        }
+
+        boolean matches(ProductDTO product) {
+            return (category == null || category.equalsIgnoreCase(product.getCategory()))
+                    && (description == null || (product.getDescription() != null
+                        && product.getDescription().toLowerCase().contains(description.toLowerCase())))
+                    && (minPrice == null || (product.getPrice() != null && product.getPrice().compareTo(minPrice) >= 0))
+                    && (maxPrice == null || (product.getPrice() != null && product.getPrice().compareTo(maxPrice) <= 0))
+                    && (active == null || active.equals(product.getActive()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.store.service;
+
+import com.store.entity.CatalogVersion;
+import com.store.repository.CatalogVersionRepository;
+import com.store.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Propagates product writes made by other instances to the local {@link ProductCatalogCache}. Product
+ * writers bump the {@code catalog_version} row in their transaction ({@link #recordChange(boolean)}), and
+ * each poll reads that row by primary key. Only when the version moved does it look up the products whose
+ * {@code updated_at} changed (indexed) and evict them; a delete, invisible to {@code updated_at}, drops the
+ * whole cache.
+ * <p>
+ * A price edited on another instance is served stale for at most one sync interval. The lookup goes back an
+ * extra {@code sync-overlap} so rows stamped before the previous poll but committed after it, or by an
+ * instance with a skewed clock, are not missed. Stock changes do not bump the version; they are always
+ * validated against the database at checkout.
+ */
+@Component
+@Slf4j
+public class ProductCatalogCacheSync {
+
+    private static final int VERSION_ROW = 1;
+
+    private final ProductRepository productRepository;
+    private final CatalogVersionRepository versionRepository;
+    private final ProductCatalogCache catalogCache;
+    private final Duration overlap;
+    private LocalDateTime lastPollAt = LocalDateTime.now();
+    private Seen lastSeen;
+
+    public ProductCatalogCacheSync(ProductRepository productRepository,
+                                   CatalogVersionRepository versionRepository,
+                                   ProductCatalogCache catalogCache,
+                                   @Value("${store.catalog.cache.sync-overlap:10s}") Duration overlap) {
+        this.productRepository = productRepository;
+        this.versionRepository = versionRepository;
+        this.catalogCache = catalogCache;
+        this.overlap = overlap;
+    }
+
+    /**
+     * Bumps the catalog version in the caller's transaction. The row lock serializes concurrent product
+     * writes until they commit, which is acceptable at the rate products are edited.
+     */
+    public void recordChange(boolean deleted) {
+        if (versionRepository.bump(VERSION_ROW, deleted ? 1 : 0) == 0) {
+            // Banco criado sem a migração (ex.: testes com create-drop)
+            versionRepository.save(new CatalogVersion(VERSION_ROW, 1L, deleted ? 1L : 0L));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${store.catalog.cache.sync-interval-ms:5000}")
+    public synchronized void poll() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            Seen current = versionRepository.findById(VERSION_ROW)
+                    .map(row -> new Seen(row.getVersion(), row.getDeletions()))
+                    .orElse(new Seen(0, 0));
+
+            if (lastSeen == null || current.deletions() != lastSeen.deletions()) {
+                catalogCache.invalidateAll();
+            } else if (current.version() != lastSeen.version()) {
+                List<Long> changedIds = productRepository.findIdsUpdatedSince(lastPollAt.minus(overlap));
+                if (changedIds.isEmpty()) {
+                    // A escrita confirmou depois da janela de sobreposição: sem saber qual produto, limpa tudo
+                    catalogCache.invalidateAll();
+                } else {
+                    catalogCache.productsChangedElsewhere(changedIds);
+                }
+            }
+            lastSeen = current;
+            lastPollAt = startedAt;
+        } catch (RuntimeException ex) {
+            // Sem avançar a marca: a próxima execução cobre o intervalo perdido
+            log.warn("Could not sync the product catalog cache", ex);
+        }
+    }
+
+    private record Seen(long version, long deletions) {
+    }
+}
@@ -0,0 +1,298 @@
+package com.store.service;
+
+import com.store.dto.ProductDTO;
+import com.store.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, category and description.
+ * <p>
+ * Text is lower-cased, stripped of accents and split on anything that is not a letter or digit.
+ * Every query token must match a term of the product, either exactly or as a prefix; the score adds
+ * up the field weights of the matched terms, with exact matches counting double. The index is built
+ * on startup and rebuilt periodically so writes made by other instances are picked up; local writes
+ * are applied right after commit through {@link #index(ProductDTO)} and {@link #remove(Long)}.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    // Maior pontuação primeiro; empate pelo menor id, para paginação estável
+    private static final Comparator<Map.Entry<Long, Float>> RANKING =
+            Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final ProductRepository productRepository;
+    private final int batchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+    private List<PendingChange> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${store.search.rebuild-batch-size:5000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns one page of the products matching every token of the keyword, best match first, and
+     * the total number of matches. Only the first {@code offset + limit} hits are ranked.
+     */
+    public SearchHits search(String keyword, int offset, int limit) {
+        List<String> queryTokens = tokenize(keyword);
+        if (queryTokens.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+
+        Map<Long, Float> scores = scores(queryTokens);
+        return new SearchHits(topHits(scores, offset, limit), scores.size());
+    }
+
+    /**
+     * Ids of every product matching the keyword, unranked, or empty when there are more than
+     * {@code maxIds} of them and the caller should filter by other means.
+     */
+    public Optional<Set<Long>> matchingIds(String keyword, int maxIds) {
+        List<String> queryTokens = tokenize(keyword);
+        if (queryTokens.isEmpty()) {
+            return Optional.of(Set.of());
+        }
+        Map<Long, Float> scores = scores(queryTokens);
+        return scores.size() > maxIds ? Optional.empty() : Optional.of(scores.keySet());
+    }
+
+    private Map<Long, Float> scores(List<String> queryTokens) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = index.match(queryTokens.get(0));
+            for (int i = 1; i < queryTokens.size() && !scores.isEmpty(); i++) {
+                Map<Long, Float> tokenScores = index.match(queryTokens.get(i));
+                Map<Long, Float> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Long, Float> entry : tokenScores.entrySet()) {
+                    Float previousScore = previous.get(entry.getKey());
+                    if (previousScore != null) {
+                        scores.put(entry.getKey(), previousScore + entry.getValue());
+                    }
+                }
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Seleção parcial com heap limitado a offset + limit, em vez de ordenar todos os resultados
+    private static List<Long> topHits(Map<Long, Float> scores, int offset, int limit) {
+        int wanted = offset + limit;
+        if (offset >= scores.size() || limit <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(Math.min(wanted, scores.size()), RANKING.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            if (heap.size() < wanted) {
+                heap.add(entry);
+            } else if (RANKING.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(heap);
+        ranked.sort(RANKING);
+        return ranked.subList(offset, ranked.size()).stream()
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public void index(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            index.put(product.getId(), terms(product.getName(), product.getCategory(), product.getDescription()));
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(new PendingChange(product.getId(), product));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(productId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(new PendingChange(productId, null));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Builds a fresh index from the database without blocking searches, then swaps it in. Changes
+     * indexed while the rebuild was reading are replayed on the new index before the swap.
+     */
+    @Scheduled(fixedDelayString = "${store.search.rebuild-interval-ms:600000}",
+            initialDelayString = "${store.search.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index fresh = new Index();
+        try {
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = productRepository.findSearchableAfter(afterId, PageRequest.ofSize(batchSize));
+                for (Object[] row : rows) {
+                    fresh.put((Long) row[0], terms((String) row[1], (String) row[3], (String) row[2]));
+                    afterId = (Long) row[0];
+                }
+            } while (rows.size() == batchSize);
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (PendingChange change : changesDuringRebuild) {
+                if (change.product() == null) {
+                    fresh.remove(change.productId());
+                } else {
+                    ProductDTO product = change.product();
+                    fresh.put(change.productId(), terms(product.getName(), product.getCategory(), product.getDescription()));
+                }
+            }
+            changesDuringRebuild = null;
+            index = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built with {} products and {} terms", fresh.productCount(), fresh.termCount());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Map<String, Float> terms(String name, String category, String description) {
+        Map<String, Float> terms = new HashMap<>();
+        tokenize(name).forEach(token -> terms.merge(token, NAME_WEIGHT, Float::sum));
+        tokenize(category).forEach(token -> terms.merge(token, CATEGORY_WEIGHT, Float::sum));
+        tokenize(description).forEach(token -> terms.merge(token, DESCRIPTION_WEIGHT, Float::sum));
+        return terms;
+    }
+
+    public record SearchHits(List<Long> ids, int totalHits) {
+        static final SearchHits EMPTY = new SearchHits(List.of(), 0);
+    }
+
+    private record PendingChange(Long productId, ProductDTO product) {
+    }
+
+    private static final class Index {
+
+        // Termos ordenados: a busca por prefixo é um subMap contíguo
+        private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+        private final Map<Long, Set<String>> termsByProduct = new HashMap<>();
+
+        void put(Long productId, Map<String, Float> terms) {
+            remove(productId);
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(productId, weight));
+            termsByProduct.put(productId, new HashSet<>(terms.keySet()));
+        }
+
+        void remove(Long productId) {
+            Set<String> terms = termsByProduct.remove(productId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Map<Long, Float> products = postings.get(term);
+                products.remove(productId);
+                if (products.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        Map<Long, Float> match(String token) {
+            Map<Long, Float> scores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Float>> entry : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                float boost = entry.getKey().equals(token) ? 2f : 1f;
+                // Um produto conta o melhor termo que casa com o token, não a soma de todos os prefixos
+                entry.getValue().forEach((productId, weight) -> scores.merge(productId, weight * boost, Math::max));
+            }
+            return scores;
+        }
+
+        int productCount() {
+            return termsByProduct.size();
+        }
+
+        int termCount() {
+            return postings.size();
+        }
+    }
+}
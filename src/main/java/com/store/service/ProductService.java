@@ -1,96 +1,218 @@
 package com.store.service;
 
+import com.store.dto.CursorPageDTO;
 import com.store.dto.ProductDTO;
 import com.store.dto.ProductFilterDTO;
 import com.store.entity.Product;
 import com.store.mapper.ProductMapper;
+import com.store.repository.ProductQueryRepository;
 import com.store.repository.ProductRepository;
+import com.store.repository.query.KeysetCursor;
+import com.store.service.ProductCatalogCache.FilterKey;
+import com.store.service.ProductCatalogCache.FilterResult;
+import com.store.service.ProductSearchIndex.SearchHits;
+import com.store.util.TransactionCallbacks;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductQueryRepository productQueryRepository;
     private final ProductMapper productMapper;
+    private final HotStockLedger hotStockLedger;
+    private final ProductCatalogCache catalogCache;
+    private final ProductCatalogCacheSync catalogCacheSync;
+    private final ProductSearchIndex searchIndex;
 
+    @Value("${store.search.max-keyword-ids:1000}")
+    private int maxKeywordIds;
+
+    /**
+     * Lists products matching any combination of keyword, filters and low-stock threshold in one
+     * paged query. A keyword on its own is ranked by relevance straight from the search index.
+     */
     @Transactional(readOnly = true)
-    public Page<ProductDTO> findProductsByFilters(ProductFilterDTO filterDTO) {
-        Sort sort = Sort.by(
-                filterDTO.getSortDirection() == null || filterDTO.getSortDirection().equalsIgnoreCase("ASC")
-                        ? Sort.Direction.ASC
-                        : Sort.Direction.DESC,
-                filterDTO.getSortBy() == null ? "id" : filterDTO.getSortBy()
-        );
-
-        Pageable pageable = PageRequest.of(
-                filterDTO.getPage() == null ? 0 : filterDTO.getPage(),
-                filterDTO.getSize() == null ? 10 : filterDTO.getSize(),
-                sort
-        );
-
-        return productRepository.findProductsByFilters(
-                filterDTO.getCategory(),
-                filterDTO.getDescription(),
-                filterDTO.getMinPrice(),
-                filterDTO.getMaxPrice(),
-                filterDTO.getActive(),
-                pageable
-        ).map(productMapper::toDTO);
+    public Page<ProductDTO> findProducts(ProductFilterDTO filterDTO, String keyword, Pageable pageable) {
+        boolean hasKeyword = keyword != null && !keyword.isBlank();
+        if (!hasKeyword) {
+            return filterDTO.getLowStockThreshold() == null
+                    ? findCachedPage(filterDTO, pageable)
+                    : findPage(filterDTO, null, null, pageable);
+        }
+
+        if (!searchIndex.isReady()) {
+            // Enquanto o índice é construído na inicialização
+            return findPage(filterDTO, keyword, null, pageable);
+        }
+
+        if (!hasFilters(filterDTO)) {
+            // Resultados ordenados por relevância; a ordenação do Pageable não se aplica
+            SearchHits hits = searchIndex.search(keyword, (int) pageable.getOffset(), pageable.getPageSize());
+            return new PageImpl<>(loadProducts(hits.ids()), pageable, hits.totalHits());
+        }
+
+        // Poucos resultados no índice viram um IN; palavras muito comuns caem no LIKE
+        Optional<Set<Long>> keywordIds = searchIndex.matchingIds(keyword, maxKeywordIds);
+        if (keywordIds.isPresent() && keywordIds.get().isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return findPage(filterDTO, keyword, keywordIds.orElse(null), pageable);
     }
 
-    @Transactional(readOnly = true)
-    public ProductDTO findProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
-        return productMapper.toDTO(product);
+    private Page<ProductDTO> findPage(ProductFilterDTO filterDTO, String keyword, Collection<Long> keywordIds,
+                                      Pageable pageable) {
+        return productQueryRepository.findPage(filterDTO, keyword, keywordIds, pageable)
+                .map(productMapper::toDTO);
+    }
+
+    private Page<ProductDTO> findCachedPage(ProductFilterDTO filterDTO, Pageable pageable) {
+        FilterKey key = FilterKey.of(filterDTO, pageable);
+        FilterResult cached = catalogCache.getFilterResult(key);
+        if (cached != null) {
+            return new PageImpl<>(loadProducts(cached.ids()), pageable, cached.totalElements());
+        }
+
+        long generation = catalogCache.generation();
+        Page<ProductDTO> page = findPage(filterDTO, null, null, pageable);
+
+        catalogCache.putProducts(generation, page.getContent());
+        catalogCache.putFilterResult(generation, key, new FilterResult(
+                page.getContent().stream().map(ProductDTO::getId).toList(),
+                page.getTotalElements()));
+        return page;
+    }
+
+    private static boolean hasFilters(ProductFilterDTO filterDTO) {
+        return filterDTO.getCategory() != null
+                || filterDTO.getDescription() != null
+                || filterDTO.getMinPrice() != null
+                || filterDTO.getMaxPrice() != null
+                || filterDTO.getActive() != null
+                || filterDTO.getLowStockThreshold() != null;
     }
 
+    // Monta a página a partir do cache, buscando no banco apenas os produtos que faltam
+    private List<ProductDTO> loadProducts(List<Long> ids) {
+        Map<Long, ProductDTO> productsById = new HashMap<>(catalogCache.getProducts(ids));
+        List<Long> missingIds = ids.stream().filter(id -> !productsById.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            long generation = catalogCache.generation();
+            List<ProductDTO> loaded = productRepository.findAllById(missingIds).stream()
+                    .map(productMapper::toDTO)
+                    .toList();
+            catalogCache.putProducts(generation, loaded);
+            loaded.forEach(dto -> productsById.put(dto.getId(), dto));
+        }
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Paginação por cursor (keyset): sem OFFSET e sem COUNT, custo constante em qualquer profundidade
     @Transactional(readOnly = true)
-    public Page<ProductDTO> searchProducts(String keyword, Pageable pageable) {
-        return productRepository.searchByKeyword(keyword, pageable)
-                .map(productMapper::toDTO);
+    public CursorPageDTO<ProductDTO> scrollProducts(ProductFilterDTO filterDTO, String after) {
+        KeysetCursor cursor = after == null ? null : KeysetCursor.decode(after);
+        String sortBy = cursor != null ? cursor.sortBy() : sortProperty(filterDTO);
+        Sort.Direction direction = cursor != null ? cursor.direction() : sortDirection(filterDTO);
+        int size = KeysetPages.size(filterDTO.getSize());
+
+        List<Object[]> rows = productQueryRepository.scroll(filterDTO, sortBy, direction, cursor, size + 1);
+
+        return KeysetPages.toCursorPage(rows, size, sortBy, direction,
+                row -> ((Product) row[0]).getId(),
+                pageRows -> pageRows.stream()
+                        .map(row -> productMapper.toDTO((Product) row[0]))
+                        .toList());
+    }
+
+    private Sort.Direction sortDirection(ProductFilterDTO filterDTO) {
+        return filterDTO.getSortDirection() == null || filterDTO.getSortDirection().equalsIgnoreCase("ASC")
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+    }
+
+    private String sortProperty(ProductFilterDTO filterDTO) {
+        return filterDTO.getSortBy() == null ? "id" : filterDTO.getSortBy();
     }
 
     @Transactional(readOnly = true)
-    public List<ProductDTO> findLowStockProducts(Integer threshold) {
-        return productRepository.findLowStockProducts(threshold).stream()
-                .map(productMapper::toDTO)
-                .collect(Collectors.toList());
+    public ProductDTO findProductById(Long id) {
+        ProductDTO cached = catalogCache.getProduct(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = catalogCache.generation();
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
+        ProductDTO productDTO = productMapper.toDTO(product);
+        catalogCache.putProducts(generation, List.of(productDTO));
+        return productDTO;
     }
 
     @Transactional
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = productMapper.toEntity(productDTO);
-        product = productRepository.save(product);
-        return productMapper.toDTO(product);
+        ProductDTO created = productMapper.toDTO(productRepository.save(product));
+        catalogCacheSync.recordChange(false);
+        TransactionCallbacks.afterCommit(() -> {
+            catalogCache.productChanged(created.getId(), null, created);
+            searchIndex.index(created);
+        });
+        return created;
     }
 
     @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
+        // Devolve o lease local à linha antes de sobrescrever o estoque
+        hotStockLedger.returnLease(id);
+
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
 
+        ProductDTO before = productMapper.toDTO(existingProduct);
         productMapper.updateEntityFromDTO(productDTO, existingProduct);
         Product updatedProduct = productRepository.save(existingProduct);
-        return productMapper.toDTO(updatedProduct);
+        catalogCacheSync.recordChange(false);
+        ProductDTO after = productMapper.toDTO(updatedProduct);
+        TransactionCallbacks.afterCommit(() -> {
+            hotStockLedger.reload(updatedProduct);
+            catalogCache.productChanged(id, before, after);
+            searchIndex.index(after);
+        });
+        return after;
     }
 
     @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new EntityNotFoundException("Product not found with id: " + id);
-        }
-        productRepository.deleteById(id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
+        ProductDTO before = productMapper.toDTO(product);
+        productRepository.delete(product);
+        catalogCacheSync.recordChange(true);
+        TransactionCallbacks.afterCommit(() -> {
+            hotStockLedger.disable(id);
+            catalogCache.productChanged(id, before, null);
+            searchIndex.remove(id);
+        });
     }
 }
\ No newline at end of file
@@ -5,36 +5,186 @@ import com.store.exceptions.InsufficientStockException;
 import com.store.exceptions.ProductNotFoundException;
 import com.store.exceptions.ProductUnavailableException;
 import com.store.repository.ProductRepository;
+import com.store.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
 public class ProductStockService {
     private final ProductRepository productRepository;
+    private final HotStockLedger hotStockLedger;
+    private final ProductCatalogCache catalogCache;
 
+    @Transactional
     public Product getAndValidateProduct(Long productId, Integer quantity) {
-        Product product = productRepository.findById(productId)
+        reserveStock(Map.of(productId, quantity));
+
+        return productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException(productId));
+    }
+
+    /**
+     * Validação em memória dos produtos já carregados, para falhar cedo sem ir ao banco.
+     * O UPDATE condicional de {@link #reserveStock(Map)} continua sendo a garantia final.
+     */
+    public void validateAvailability(Map<Long, Product> productsById, Map<Long, Integer> quantitiesByProductId) {
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            Product product = productsById.get(productId);
+            if (product == null) {
+                throw new ProductNotFoundException(productId);
+            }
+            if (!Boolean.TRUE.equals(product.getActive())) {
+                throw new ProductUnavailableException(product.getName());
+            }
+            // Para produtos "hot" parte do estoque está no lease local; quem decide é a reserva
+            if (!hotStockLedger.isHot(productId) && product.getStockQuantity() < quantity) {
+                throw new InsufficientStockException(product.getName());
+            }
+        });
+    }
+
+    /**
+     * Reserva o estoque de todos os itens em um único batch de UPDATEs condicionais.
+     * Se algum produto não puder ser reservado a exceção desfaz a transação inteira.
+     */
+    @Transactional
+    public void reserveStock(Map<Long, Integer> quantitiesByProductId) {
+        // Ordenar por id mantém a mesma ordem de locks entre checkouts concorrentes
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            // Produto hot sem saldo no lease local cai no UPDATE condicional da linha
+            if (!reserveFromLease(productId, quantity)) {
+                quantities.put(productId, quantity);
+            }
+        });
+
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        int[] updatedRows = productRepository.decrementStock(quantities);
+
+        List<Long> productIds = new ArrayList<>(quantities.keySet());
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                throw stockFailure(productIds.get(i));
+            }
+        }
+        TransactionCallbacks.afterCommit(() -> catalogCache.evictProducts(productIds));
+    }
 
-        validateProductAvailability(product, quantity);
-        updateProductStock(product, quantity);
+    /**
+     * Reserva o estoque de um lote de pedidos em uma única passada. Os produtos são bloqueados uma vez,
+     * em ordem de id, e cada pedido é validado contra o saldo deixado pelos anteriores do lote (produtos hot
+     * usam primeiro o lease local do {@link HotStockLedger});
+     * o total reservado é gravado em um único batch. Um pedido sem estoque falha sozinho, sem desfazer
+     * os demais: suas falhas voltam em {@link BatchReservation#failures()}, pela posição na lista.
+     */
+    @Transactional
+    public BatchReservation reserveBatch(List<Map<Long, Integer>> quantitiesPerOrder) {
+        SortedSet<Long> productIds = new TreeSet<>();
+        quantitiesPerOrder.forEach(quantities -> productIds.addAll(quantities.keySet()));
+        Map<Long, Product> productsById = new HashMap<>();
+        Map<Long, Integer> remaining = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            productRepository.findAllByIdForUpdate(productIds).forEach(product -> {
+                productsById.put(product.getId(), product);
+                remaining.put(product.getId(), product.getStockQuantity());
+            });
+        }
+
+        SortedMap<Long, Integer> decrements = new TreeMap<>();
+        Map<Long, Integer> hotReserved = new HashMap<>();
+        Map<Integer, RuntimeException> failures = new HashMap<>();
+        for (int i = 0; i < quantitiesPerOrder.size(); i++) {
+            try {
+                reserveForBatch(quantitiesPerOrder.get(i), productsById, remaining, decrements, hotReserved);
+            } catch (ProductNotFoundException | ProductUnavailableException | InsufficientStockException ex) {
+                failures.put(i, ex);
+            }
+        }
+
+        if (!hotReserved.isEmpty()) {
+            TransactionCallbacks.afterRollback(() -> hotReserved.forEach(hotStockLedger::release));
+        }
+        if (!decrements.isEmpty()) {
+            productRepository.applyStockDecrements(decrements);
+            List<Long> decrementedIds = new ArrayList<>(decrements.keySet());
+            TransactionCallbacks.afterCommit(() -> catalogCache.evictProducts(decrementedIds));
+        }
+        return new BatchReservation(productsById, failures);
+    }
+
+    private void reserveForBatch(Map<Long, Integer> quantities, Map<Long, Product> productsById,
+                                 Map<Long, Integer> remaining, SortedMap<Long, Integer> decrements,
+                                 Map<Long, Integer> hotReserved) {
+        // Valida o pedido inteiro antes de reservar qualquer item
+        quantities.forEach((productId, quantity) -> {
+            Product product = productsById.get(productId);
+            if (product == null) {
+                throw new ProductNotFoundException(productId);
+            }
+            if (!Boolean.TRUE.equals(product.getActive())) {
+                throw new ProductUnavailableException(product.getName());
+            }
+        });
+
+        Map<Long, Integer> leasedHere = new HashMap<>();
+        Map<Long, Integer> fromRow = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long productId = entry.getKey();
+            int quantity = entry.getValue();
+            if (hotStockLedger.tryReserve(productId, quantity)) {
+                leasedHere.put(productId, quantity);
+            } else if (remaining.get(productId) >= quantity) {
+                fromRow.put(productId, quantity);
+            } else {
+                leasedHere.forEach(hotStockLedger::release);
+                throw new InsufficientStockException(productsById.get(productId).getName());
+            }
+        }
 
-        return product;
+        leasedHere.forEach((productId, quantity) -> hotReserved.merge(productId, quantity, Integer::sum));
+        fromRow.forEach((productId, quantity) -> {
+            remaining.merge(productId, -quantity, Integer::sum);
+            decrements.merge(productId, quantity, Integer::sum);
+        });
     }
 
-    private void validateProductAvailability(Product product, Integer quantity) {
-        if (!product.getActive()) {
-            throw new ProductUnavailableException(product.getName());
+    private boolean reserveFromLease(Long productId, Integer quantity) {
+        if (!hotStockLedger.tryReserve(productId, quantity)) {
+            return false;
         }
+        TransactionCallbacks.afterRollback(() -> hotStockLedger.release(productId, quantity));
+        return true;
+    }
 
-        if (product.getStockQuantity() < quantity) {
-            throw new InsufficientStockException(product.getName());
+    private RuntimeException stockFailure(Long productId) {
+        Product product = productRepository.findById(productId).orElse(null);
+        if (product == null) {
+            return new ProductNotFoundException(productId);
+        }
+        if (!Boolean.TRUE.equals(product.getActive())) {
+            return new ProductUnavailableException(product.getName());
         }
+        return new InsufficientStockException(product.getName());
     }
 
-    private void updateProductStock(Product product, Integer quantity) {
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
+    /**
+     * Outcome of {@link #reserveBatch(List)}: the products involved, and the failure of each order that
+     * could not be reserved, keyed by its position in the batch.
+     */
+    public record BatchReservation(Map<Long, Product> productsById, Map<Integer, RuntimeException> failures) {
     }
 }
@@ -0,0 +1,129 @@
+package com.store.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.store.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches computed reports by type and requested range. Concurrent requests for the same key share one
+ * computation. A range that only covers closed days is kept until an order created on one of its days
+ * is written; a range that reaches today also expires after {@code store.reports.cache.open-ttl}, which
+ * bounds how long writes made by other instances go unseen.
+ * <p>
+ * Writes invalidate the creation day of the affected orders once their transaction commits. A report
+ * whose computation overlapped such a commit is returned to its callers but not kept.
+ */
+@Service
+public class ReportCache {
+
+    public enum ReportType {
+        SALES
+    }
+
+    private final Cache<Key, CachedReport> reports;
+    private final AtomicLong generation = new AtomicLong();
+    // Geração da última invalidação de cada dia; só cresce com os dias que recebem escrita
+    private final ConcurrentMap<LocalDate, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    public ReportCache(@Value("${store.reports.cache.max-entries:1000}") long maxEntries,
+                       @Value("${store.reports.cache.open-ttl:30s}") Duration openTtl,
+                       MeterRegistry meterRegistry) {
+        this.reports = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<Key, CachedReport>() {
+                    @Override
+                    public long expireAfterCreate(Key key, CachedReport report, long currentTime) {
+                        return key.lastDay().isBefore(LocalDate.now()) ? Long.MAX_VALUE : openTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, CachedReport report, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, report, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, CachedReport report, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, reports, "reports.results");
+    }
+
+    /**
+     * Returns the cached report for the range, or computes it once for all concurrent callers.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportType type, LocalDateTime startDate, LocalDateTime endDate, Supplier<T> compute) {
+        Key key = new Key(type, startDate, endDate);
+        CachedReport cached = reports.get(key, k -> new CachedReport(generation.get(), compute.get()));
+        if (invalidatedSince(key, cached.generation())) {
+            // calculado antes de um commit que mudou um dos dias: vale para esta requisição, mas não fica no cache
+            reports.asMap().remove(key, cached);
+        }
+        return (T) cached.report();
+    }
+
+    /**
+     * Invalidates the reports covering the creation day of an order written in the current transaction.
+     */
+    public void invalidate(LocalDateTime orderCreatedAt) {
+        if (orderCreatedAt != null) {
+            invalidateDays(List.of(orderCreatedAt.toLocalDate()));
+        }
+    }
+
+    public void invalidateDays(Collection<LocalDate> days) {
+        if (days.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            long current = generation.incrementAndGet();
+            days.forEach(day -> invalidatedAt.merge(day, current, Math::max));
+            reports.asMap().keySet().removeIf(key -> days.stream().anyMatch(key::covers));
+        });
+    }
+
+    private boolean invalidatedSince(Key key, long computedAt) {
+        if (computedAt == generation.get()) {
+            return false;
+        }
+        for (Map.Entry<LocalDate, Long> entry : invalidatedAt.entrySet()) {
+            if (entry.getValue() > computedAt && key.covers(entry.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Key(ReportType type, LocalDateTime startDate, LocalDateTime endDate) {
+
+        LocalDate lastDay() {
+            return endDate.toLocalDate();
+        }
+
+        boolean covers(LocalDate day) {
+            return !day.isBefore(startDate.toLocalDate()) && !day.isAfter(endDate.toLocalDate());
+        }
+    }
+
+    private record CachedReport(long generation, Object report) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.store.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.ReportDTO.ReportJobDTO;
+import com.store.dto.ReportDTO.SalesReportDTO;
+import com.store.entity.ReportJobRecord;
+import com.store.entity.ReportJobRecord.Status;
+import com.store.exceptions.ReportJobNotFoundException;
+import com.store.exceptions.ReportJobNotReadyException;
+import com.store.exceptions.ReportJobRejectedException;
+import com.store.repository.ReportJobRecordRepository;
+import com.store.security.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs sales reports in the background. Jobs go to a fixed pool of {@code store.reports.jobs.threads}
+ * threads with a queue of {@code store.reports.jobs.queue-capacity}; when both are busy, or the user already
+ * has {@code store.reports.jobs.max-per-user} unfinished jobs, the submission is refused with 429 instead
+ * of taking more database connections from the order endpoints.
+ * <p>
+ * Job state and the finished report live in {@code report_jobs}, so a poll or a download can land on any
+ * instance. The instance running a job refreshes its {@code updated_at}; a job not refreshed for
+ * {@code store.reports.jobs.stale-after} belonged to an instance that went away and is marked failed.
+ * Finished jobs, with their result, are kept for {@code store.reports.jobs.result-ttl}.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    private static final Set<Status> UNFINISHED = EnumSet.of(Status.QUEUED, Status.RUNNING);
+
+    private final ReportService reportService;
+    private final OrderAuthorizationService orderAuthorizationService;
+    private final ReportJobRecordRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    // Jobs aceitos por esta instância; limitado por threads + fila
+    private final Set<String> localJobs = ConcurrentHashMap.newKeySet();
+    private final int maxPerUser;
+    private final Duration resultTtl;
+    private final Duration staleAfter;
+
+    public ReportJobService(ReportService reportService,
+                            OrderAuthorizationService orderAuthorizationService,
+                            ReportJobRecordRepository jobRepository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${store.reports.jobs.threads:2}") int threads,
+                            @Value("${store.reports.jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${store.reports.jobs.max-per-user:2}") int maxPerUser,
+                            @Value("${store.reports.jobs.result-ttl:1h}") Duration resultTtl,
+                            @Value("${store.reports.jobs.stale-after:5m}") Duration staleAfter,
+                            MeterRegistry meterRegistry) {
+        this.reportService = reportService;
+        this.orderAuthorizationService = orderAuthorizationService;
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPerUser = maxPerUser;
+        this.resultTtl = resultTtl;
+        this.staleAfter = staleAfter;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "reports.jobs");
+    }
+
+    public ReportJobDTO submitSalesReport(LocalDateTime startDate, LocalDateTime endDate) {
+        AuthenticatedUser user = orderAuthorizationService.getCurrentPrincipal();
+        LocalDateTime now = LocalDateTime.now();
+        ReportJobRecord job = new ReportJobRecord(UUID.randomUUID().toString(), user.id(), Status.QUEUED, 0,
+                startDate, endDate, now, now, null, null, null);
+
+        // synchronized para que duas submissões simultâneas do mesmo usuário nesta instância não passem juntas do limite
+        synchronized (this) {
+            long unfinished = jobRepository.countByOwnerIdAndStatusIn(user.id(), UNFINISHED);
+            if (unfinished >= maxPerUser) {
+                throw new ReportJobRejectedException(
+                        "You already have " + unfinished + " report job(s) running; wait for them to finish");
+            }
+            transactionTemplate.executeWithoutResult(status -> jobRepository.save(job));
+        }
+
+        localJobs.add(job.getId());
+        try {
+            executor.execute(() -> run(job.getId(), startDate, endDate));
+        } catch (RejectedExecutionException ex) {
+            localJobs.remove(job.getId());
+            transactionTemplate.executeWithoutResult(status -> jobRepository.deleteById(job.getId()));
+            throw new ReportJobRejectedException("Too many report jobs queued; try again later");
+        }
+        return toDTO(job);
+    }
+
+    public ReportJobDTO getJob(String id) {
+        return toDTO(find(id));
+    }
+
+    public SalesReportDTO getResult(String id) {
+        ReportJobRecord job = find(id);
+        if (job.getStatus() != Status.COMPLETED) {
+            throw new ReportJobNotReadyException(id, job.getStatus().name());
+        }
+        try {
+            return objectMapper.readValue(job.getResult(), SalesReportDTO.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored result of report job " + id + " is unreadable", ex);
+        }
+    }
+
+    /**
+     * Refreshes the jobs this instance is running, fails jobs whose instance stopped refreshing them
+     * and removes expired results.
+     */
+    @Scheduled(fixedDelayString = "${store.reports.jobs.housekeeping-interval-ms:60000}")
+    public void housekeeping() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> running = new ArrayList<>(localJobs);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!running.isEmpty()) {
+                jobRepository.heartbeat(running, now);
+            }
+            int abandoned = jobRepository.failAbandoned(UNFINISHED, now.minus(staleAfter), Status.FAILED,
+                    "Report job was interrupted; submit it again", now);
+            if (abandoned > 0) {
+                log.warn("Marked {} abandoned report job(s) as failed", abandoned);
+            }
+            jobRepository.deleteFinishedBefore(now.minus(resultTtl));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(String id, LocalDateTime startDate, LocalDateTime endDate) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.updateStatus(id, Status.RUNNING, LocalDateTime.now()));
+            AtomicInteger lastProgress = new AtomicInteger();
+            SalesReportDTO result = reportService.generateSalesReport(startDate, endDate, fraction -> {
+                int progress = (int) Math.floor(fraction * 100);
+                // Grava só quando o percentual muda: no máximo cem UPDATEs por job
+                if (lastProgress.getAndSet(progress) != progress) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jobRepository.updateProgress(id, progress, LocalDateTime.now()));
+                }
+            });
+            String json = objectMapper.writeValueAsString(result);
+            finish(id, Status.COMPLETED, null, json);
+        } catch (RuntimeException | JsonProcessingException ex) {
+            log.warn("Report job {} failed", id, ex);
+            finish(id, Status.FAILED, ex.getMessage(), null);
+        } finally {
+            localJobs.remove(id);
+        }
+    }
+
+    private void finish(String id, Status status, String error, String result) {
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    jobRepository.finish(id, status, error, result, LocalDateTime.now()));
+        } catch (RuntimeException ex) {
+            // sem heartbeat, o job será encerrado como abandonado
+            log.error("Could not record the outcome of report job {}", id, ex);
+        }
+    }
+
+    // Jobs de outros usuários e resultados expirados aparecem como inexistentes, exceto para administradores
+    private ReportJobRecord find(String id) {
+        ReportJobRecord job = jobRepository.findById(id)
+                .filter(record -> record.getCompletedAt() == null
+                        || record.getCompletedAt().plus(resultTtl).isAfter(LocalDateTime.now()))
+                .orElse(null);
+        AuthenticatedUser user = orderAuthorizationService.getCurrentPrincipal();
+        if (job == null || !(job.getOwnerId().equals(user.id()) || user.isAdmin())) {
+            throw new ReportJobNotFoundException(id);
+        }
+        return job;
+    }
+
+    private ReportJobDTO toDTO(ReportJobRecord job) {
+        return new ReportJobDTO(job.getId(), "SALES", job.getStatus().name(), job.getProgress(), job.getStartDate(),
+                job.getEndDate(), job.getSubmittedAt(), job.getCompletedAt(), job.getError());
+    }
+}
@@ -2,9 +2,15 @@ package com.store.service;
 
 import com.store.dto.ReportDTO.OrderStatusReportDTO;
 import com.store.dto.ReportDTO.SalesReportDTO;
+import com.store.dto.ReportDTO.TopProductsReportDTO;
 import java.time.LocalDateTime;
+import java.util.function.DoubleConsumer;
 
 public interface ReportService {
     SalesReportDTO generateSalesReport(LocalDateTime startDate, LocalDateTime endDate);
+    // Mesmo relatório, informando o progresso (de 0 a 1) a um job em segundo plano
+    SalesReportDTO generateSalesReport(LocalDateTime startDate, LocalDateTime endDate, DoubleConsumer progress);
+    TopProductsReportDTO generateTopProductsReport(LocalDateTime startDate, LocalDateTime endDate, int limit);
     OrderStatusReportDTO generateOrderStatusReport();
+    OrderStatusReportDTO rebuildOrderStatusReport();
 }
\ No newline at end of file
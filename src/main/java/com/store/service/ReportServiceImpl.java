@@ -2,33 +2,58 @@ package com.store.service;
 
 import com.store.dto.ReportDTO.OrderStatusReportDTO;
 import com.store.dto.ReportDTO.SalesReportDTO;
+import com.store.dto.ReportDTO.TopProductsReportDTO;
 import com.store.entity.Order;
 import com.store.mapper.OrderReportMapper;
-import com.store.repository.OrderRepository;
+import com.store.repository.projection.DailySalesAggregate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.DoubleConsumer;
 
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
-    private final OrderRepository orderRepository;
+    private final DailySalesRollupService dailySalesRollupService;
     private final OrderReportMapper orderReportMapper;
+    private final OrderStatusSummaryService orderStatusSummaryService;
+    private final ReportCache reportCache;
+    private final TopProductsSketch topProductsSketch;
 
     @Override
     public SalesReportDTO generateSalesReport(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Order> orders = orderRepository.findByDateRangeAndStatus(
-                startDate,
-                endDate,
-                Order.OrderStatus.DELIVERED
-        );
-        return orderReportMapper.toSalesReportDTO(orders, startDate, endDate);
+        return reportCache.get(ReportCache.ReportType.SALES, startDate, endDate, () -> {
+            List<DailySalesAggregate> rows = dailySalesRollupService.aggregate(
+                    startDate,
+                    endDate,
+                    Order.OrderStatus.DELIVERED
+            );
+            return orderReportMapper.toSalesReportDTO(rows, startDate, endDate);
+        });
+    }
+
+    @Override
+    public SalesReportDTO generateSalesReport(LocalDateTime startDate, LocalDateTime endDate, DoubleConsumer progress) {
+        // Mesma consulta do relatório síncrono; o progresso marca o início e o fim da leitura
+        progress.accept(0.0);
+        SalesReportDTO report = generateSalesReport(startDate, endDate);
+        progress.accept(1.0);
+        return report;
+    }
+
+    @Override
+    public TopProductsReportDTO generateTopProductsReport(LocalDateTime startDate, LocalDateTime endDate, int limit) {
+        return topProductsSketch.topProducts(startDate, endDate, limit);
     }
 
     @Override
     public OrderStatusReportDTO generateOrderStatusReport() {
-        List<Order> allOrders = orderRepository.findAll();
-        return orderReportMapper.toOrderStatusReportDTO(allOrders);
+        return orderStatusSummaryService.snapshot();
+    }
+
+    @Override
+    public OrderStatusReportDTO rebuildOrderStatusReport() {
+        return orderStatusSummaryService.rebuild();
     }
 }
\ No newline at end of file
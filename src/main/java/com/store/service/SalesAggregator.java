@@ -0,0 +1,59 @@
+package com.store.service;
+
+import com.store.entity.Order.PaymentMethod;
+import com.store.repository.projection.DailySalesAggregate;
+import com.store.util.Money;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sums sales rows into per-day and per-payment-method totals held in primitive arrays, in centavos, so the
+ * report is built without a {@code BigDecimal} or a map entry per row. The sales report passes rollup rows,
+ * already one per day and payment method, so the input stays small and is summed on the calling thread.
+ */
+@Service
+public class SalesAggregator {
+
+    private static final int METHODS = PaymentMethod.values().length;
+    // Última posição dos arrays por forma de pagamento: pedidos sem forma de pagamento
+    static final int UNKNOWN_METHOD = METHODS;
+
+    /**
+     * Aggregates the rows for the {@code days} days starting at {@code firstDay}. Rows outside that window
+     * still count towards the overall and per-method totals.
+     */
+    public SalesTotals aggregate(List<DailySalesAggregate> rows, LocalDate firstDay, int days) {
+        long firstEpochDay = firstDay.toEpochDay();
+        long[] ordersByDay = new long[days];
+        long[] salesByDay = new long[days];
+        long[] salesByMethod = new long[METHODS + 1];
+        long orderCount = 0;
+        long sales = 0;
+        for (DailySalesAggregate row : rows) {
+            long rowSales = Money.of(row.totalSales(), RoundingMode.HALF_UP).minorUnits();
+            orderCount += row.orderCount();
+            sales = Math.addExact(sales, rowSales);
+
+            int method = row.paymentMethod() == null ? UNKNOWN_METHOD : row.paymentMethod().ordinal();
+            salesByMethod[method] = Math.addExact(salesByMethod[method], rowSales);
+
+            long day = row.day().toEpochDay() - firstEpochDay;
+            if (day >= 0 && day < days) {
+                ordersByDay[(int) day] += row.orderCount();
+                salesByDay[(int) day] = Math.addExact(salesByDay[(int) day], rowSales);
+            }
+        }
+        return new SalesTotals(orderCount, sales, ordersByDay, salesByDay, salesByMethod);
+    }
+
+    /**
+     * Totals in centavos. Per-method arrays are indexed by {@link PaymentMethod#ordinal()}, with
+     * {@link #UNKNOWN_METHOD} for rows without a payment method.
+     */
+    public record SalesTotals(long orderCount, long salesMinor, long[] ordersByDay, long[] salesMinorByDay,
+                              long[] salesMinorByMethod) {
+    }
+}
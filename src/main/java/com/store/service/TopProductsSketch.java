@@ -0,0 +1,298 @@
+package com.store.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.store.dto.ReportDTO.ProductRankingDTO;
+import com.store.dto.ReportDTO.TopProductsReportDTO;
+import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.Product;
+import com.store.repository.OrderRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.projection.ProductSalesAggregate;
+import com.store.util.Money;
+import com.store.util.SpaceSavingSketch;
+import com.store.util.SpaceSavingSketch.Estimate;
+import com.store.util.SpaceSavingSketch.Summary;
+import com.store.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Top products by units and by revenue, over the items of orders that were not cancelled or refunded.
+ * <p>
+ * Each day is summarized by two {@link SpaceSavingSketch}es of {@code store.reports.top-products.sketch-capacity}
+ * counters, loaded from one grouped query the first time the day is needed and then updated as new orders
+ * commit on this instance. A range is answered by merging the sketches of its whole days with the exact totals
+ * of its partial days; ranges of up to {@code exact-max-days} calendar days are computed exactly instead.
+ * <p>
+ * Error bounds: a value never undercounts and exceeds the true value by at most the {@code maxOvercount}
+ * reported with it, which is at most {@code W / sketch-capacity} for a range with {@code W} units (or
+ * centavos) in total. A product marked {@code guaranteed} is certainly among the true top {@code limit}.
+ * Orders that commit while their day is being loaded are buffered and applied once the day is cached; an
+ * order that committed just before the load's query may be both read and buffered, so a day loaded under
+ * concurrent writes can also overcount by the orders that committed during its load.
+ * <p>
+ * Status changes, deletes and orders written by other instances reach the sketches when the sales rollup
+ * refresh drops the days they changed; until then the counts of those days can be off by those orders.
+ */
+@Service
+public class TopProductsSketch {
+
+    static final Set<OrderStatus> EXCLUDED_STATUSES = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.REFUNDED);
+    private static final int MAX_LIMIT = 100;
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final Cache<LocalDate, DaySketches> days;
+    // Dias sendo carregados do banco; também serve de monitor entre a carga e recordCreated
+    private final Map<LocalDate, LoadingDay> loading = new HashMap<>();
+    private final int capacity;
+    private final int exactMaxDays;
+
+    public TopProductsSketch(OrderRepository orderRepository,
+                             ProductRepository productRepository,
+                             @Value("${store.reports.top-products.sketch-capacity:1000}") int capacity,
+                             @Value("${store.reports.top-products.exact-max-days:7}") int exactMaxDays,
+                             @Value("${store.reports.top-products.max-days:800}") long maxDays,
+                             MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.capacity = capacity;
+        this.exactMaxDays = exactMaxDays;
+        this.days = Caffeine.newBuilder()
+                .maximumSize(maxDays)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "reports.top-products");
+    }
+
+    /**
+     * Adds the items of a new order to the sketch of its day once the current transaction commits.
+     * Days not loaded yet are skipped: they are read from the database when first needed. Days being
+     * loaded keep the items aside and apply them when the loaded sketch is cached.
+     */
+    public void recordCreated(Order order) {
+        if (EXCLUDED_STATUSES.contains(order.getStatus()) || order.getItems() == null) {
+            return;
+        }
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        List<ItemSale> sales = order.getItems().stream()
+                .map(item -> new ItemSale(item.getProduct().getId(), item.getQuantity(),
+                        Money.of(item.getPrice(), RoundingMode.HALF_UP).times(item.getQuantity()).minorUnits()))
+                .toList();
+        TransactionCallbacks.afterCommit(() -> {
+            DaySketches sketches = days.getIfPresent(day);
+            if (sketches == null) {
+                synchronized (loading) {
+                    sketches = days.getIfPresent(day);
+                    LoadingDay loadingDay = loading.get(day);
+                    if (sketches == null && loadingDay != null) {
+                        loadingDay.pending.addAll(sales);
+                        return;
+                    }
+                }
+            }
+            if (sketches != null) {
+                sketches.addAll(sales);
+            }
+        });
+    }
+
+    /**
+     * Drops the sketches of days changed in the current transaction, so they are reloaded on the next report.
+     */
+    public void invalidateDays(Collection<LocalDate> changedDays) {
+        if (!changedDays.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> {
+                synchronized (loading) {
+                    // uma carga em andamento pode ter lido o estado anterior: o resultado dela não entra no cache
+                    changedDays.forEach(day -> {
+                        LoadingDay loadingDay = loading.get(day);
+                        if (loadingDay != null) {
+                            loadingDay.invalidated = true;
+                        }
+                    });
+                    days.invalidateAll(changedDays);
+                }
+            });
+        }
+    }
+
+    public TopProductsReportDTO topProducts(LocalDateTime startDate, LocalDateTime endDate, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        long calendarDays = ChronoUnit.DAYS.between(startDate.toLocalDate(), endDate.toLocalDate()) + 1;
+        if (calendarDays <= exactMaxDays) {
+            DaySketches exact = exact(startDate, endDate);
+            return toReport(startDate, endDate, true, List.of(exact), size);
+        }
+
+        // Dias inteiros saem dos sketches; um dia só é inteiro se o período cobre todos os pedidos dele até agora
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate firstWholeDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate lastWholeDay = !endDate.isBefore(now) ? now.toLocalDate()
+                : endDate.toLocalTime().equals(LocalTime.MAX) ? endDate.toLocalDate()
+                : endDate.toLocalDate().minusDays(1);
+
+        List<DaySketches> parts = new ArrayList<>();
+        if (firstWholeDay.isAfter(lastWholeDay)) {
+            parts.add(exact(startDate, endDate));
+        } else {
+            if (startDate.isBefore(firstWholeDay.atStartOfDay())) {
+                parts.add(exactBefore(startDate, firstWholeDay.atStartOfDay()));
+            }
+            List<LocalDate> wholeDays = firstWholeDay.datesUntil(lastWholeDay.plusDays(1)).toList();
+            parts.addAll(sketchesFor(wholeDays));
+            LocalDateTime afterWholeDays = lastWholeDay.plusDays(1).atStartOfDay();
+            if (!endDate.isBefore(afterWholeDays) && afterWholeDays.isBefore(now)) {
+                parts.add(exact(afterWholeDays, endDate));
+            }
+        }
+        return toReport(startDate, endDate, false, parts, size);
+    }
+
+    private Collection<DaySketches> sketchesFor(List<LocalDate> wholeDays) {
+        Map<LocalDate, DaySketches> present = new HashMap<>(days.getAllPresent(wholeDays));
+        Set<LocalDate> missing = wholeDays.stream()
+                .filter(day -> !present.containsKey(day))
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return present.values();
+        }
+
+        // Registra os dias antes da consulta: pedidos que confirmarem durante a carga ficam guardados
+        Map<LocalDate, LoadingDay> registered = new HashMap<>();
+        synchronized (loading) {
+            missing.forEach(day -> registered.put(day, loading.computeIfAbsent(day, d -> new LoadingDay())));
+        }
+
+        Map<LocalDate, DaySketches> loaded = load(missing);
+        synchronized (loading) {
+            for (LocalDate day : missing) {
+                LoadingDay loadingDay = registered.get(day);
+                DaySketches sketches = loaded.get(day);
+                sketches.addAll(loadingDay.pending);
+                if (loading.get(day) == loadingDay) {
+                    loading.remove(day);
+                }
+                DaySketches cached = days.getIfPresent(day);
+                if (cached != null) {
+                    // outra carga do mesmo dia terminou antes e já recebe os pedidos novos
+                    present.put(day, cached);
+                } else {
+                    if (!loadingDay.invalidated) {
+                        days.put(day, sketches);
+                    }
+                    present.put(day, sketches);
+                }
+            }
+        }
+        return present.values();
+    }
+
+    // Carrega os dias pedidos com uma única consulta; dias sem vendas ficam com sketches vazios
+    private Map<LocalDate, DaySketches> load(Set<LocalDate> missing) {
+        TreeSet<LocalDate> sorted = new TreeSet<>(missing);
+        Map<LocalDate, List<ProductSalesAggregate>> rowsByDay = orderRepository.aggregateProductSalesByDayBefore(
+                        sorted.first().atStartOfDay(),
+                        sorted.last().plusDays(1).atStartOfDay(),
+                        EXCLUDED_STATUSES).stream()
+                .filter(row -> missing.contains(row.day()))
+                .collect(Collectors.groupingBy(ProductSalesAggregate::day));
+
+        Map<LocalDate, DaySketches> loaded = new HashMap<>();
+        for (LocalDate day : missing) {
+            loaded.put(day, summarize(rowsByDay.getOrDefault(day, List.of()), capacity));
+        }
+        return loaded;
+    }
+
+    private DaySketches exact(LocalDateTime from, LocalDateTime to) {
+        return summarize(orderRepository.aggregateProductSalesByDay(from, to, EXCLUDED_STATUSES), Integer.MAX_VALUE);
+    }
+
+    // [from, end): a meia-noite do fim pertence ao dia seguinte, lido pelos sketches
+    private DaySketches exactBefore(LocalDateTime from, LocalDateTime end) {
+        return summarize(orderRepository.aggregateProductSalesByDayBefore(from, end, EXCLUDED_STATUSES),
+                Integer.MAX_VALUE);
+    }
+
+    private static DaySketches summarize(List<ProductSalesAggregate> rows, int capacity) {
+        Map<Long, Long> units = new HashMap<>();
+        Map<Long, Long> revenue = new HashMap<>();
+        for (ProductSalesAggregate row : rows) {
+            units.merge(row.productId(), row.units(), Math::addExact);
+            revenue.merge(row.productId(), Money.of(row.revenue(), RoundingMode.HALF_UP).minorUnits(), Math::addExact);
+        }
+        return new DaySketches(SpaceSavingSketch.ofCounts(units, capacity), SpaceSavingSketch.ofCounts(revenue, capacity));
+    }
+
+    private TopProductsReportDTO toReport(LocalDateTime startDate, LocalDateTime endDate, boolean exact,
+                                          Collection<DaySketches> parts, int size) {
+        Summary units = SpaceSavingSketch.merge(parts.stream().map(DaySketches::units).toList(), size);
+        Summary revenue = SpaceSavingSketch.merge(parts.stream().map(DaySketches::revenue).toList(), size);
+
+        Set<Long> productIds = new TreeSet<>();
+        units.top().forEach(estimate -> productIds.add(estimate.item()));
+        revenue.top().forEach(estimate -> productIds.add(estimate.item()));
+        Map<Long, String> names = productIds.isEmpty()
+                ? Collections.emptyMap()
+                : productRepository.findAllById(productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Product::getName));
+
+        return new TopProductsReportDTO(startDate, endDate, exact,
+                ranking(units, names, BigDecimal::valueOf),
+                ranking(revenue, names, minor -> Money.ofMinor(minor).toBigDecimal()));
+    }
+
+    private static List<ProductRankingDTO> ranking(Summary summary, Map<Long, String> names,
+                                                   Function<Long, BigDecimal> toValue) {
+        List<ProductRankingDTO> ranking = new ArrayList<>(summary.top().size());
+        for (Estimate estimate : summary.top()) {
+            ranking.add(new ProductRankingDTO(estimate.item(), names.get(estimate.item()),
+                    toValue.apply(estimate.count()), toValue.apply(estimate.maxOvercount()),
+                    summary.isGuaranteed(estimate)));
+        }
+        return ranking;
+    }
+
+    private record DaySketches(SpaceSavingSketch units, SpaceSavingSketch revenue) {
+
+        void addAll(Collection<ItemSale> sales) {
+            sales.forEach(sale -> {
+                units.add(sale.productId(), sale.quantity());
+                revenue.add(sale.productId(), sale.revenueMinor());
+            });
+        }
+    }
+
+    private record ItemSale(long productId, long quantity, long revenueMinor) {
+    }
+
+    private static final class LoadingDay {
+        private final List<ItemSale> pending = new ArrayList<>();
+        private boolean invalidated;
+    }
+}
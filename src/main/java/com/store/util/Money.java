@@ -0,0 +1,82 @@
+package com.store.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money in centavos, held in a {@code long}. Arithmetic is exact and throws
+ * {@link ArithmeticException} on overflow; the only operations that can lose precision take a
+ * {@link RoundingMode}. Used where totals are computed and accumulated; values enter and leave
+ * as {@link BigDecimal} with two decimal places, matching the {@code NUMERIC(…, 2)} columns.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Converts an amount that must already have at most two decimal places.
+     */
+    public static Money of(BigDecimal value) {
+        return of(value, RoundingMode.UNNECESSARY);
+    }
+
+    public static Money of(BigDecimal value, RoundingMode rounding) {
+        // setScale devolve a mesma instância quando a escala já é 2, o caso comum vindo do banco
+        return new Money(value.setScale(SCALE, rounding).movePointRight(SCALE).longValueExact());
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits);
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits));
+    }
+
+    public Money dividedBy(long divisor, RoundingMode rounding) {
+        long quotient = minorUnits / divisor;
+        long remainder = minorUnits % divisor;
+        if (remainder == 0) {
+            return new Money(quotient);
+        }
+        // o resto é pequeno; o arredondamento fica com o BigDecimal para seguir exatamente o RoundingMode
+        return new Money(BigDecimal.valueOf(minorUnits)
+                .divide(BigDecimal.valueOf(divisor), 0, rounding)
+                .longValueExact());
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,155 @@
+package com.store.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving summary of weighted counts per {@code long} item, keeping at most {@code capacity} counters.
+ * <p>
+ * Estimates never undercount: an item that is not monitored has a true count of at most {@link #absentBound()},
+ * and a monitored item's counter exceeds its true count by at most the error recorded with it. In a summary
+ * of total weight {@code W}, that error and the bound are at most {@code W / capacity}, so any item heavier
+ * than that is monitored.
+ * Summaries are merged with {@link #merge}, whose bounds are the sums of the merged summaries' bounds.
+ */
+public final class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    // Contadores ordenados do menor para o maior; o primeiro é o substituído quando o resumo está cheio
+    private final TreeSet<Counter> byCount = new TreeSet<>(
+            Comparator.comparingLong((Counter counter) -> counter.count).thenComparingLong(counter -> counter.item));
+    private long absentBound;
+    private long totalWeight;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Summarizes exact counts: the {@code capacity} largest are kept without error and the largest one
+     * left out becomes the bound for every item that is not monitored.
+     */
+    public static SpaceSavingSketch ofCounts(Map<Long, Long> counts, int capacity) {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(counts.entrySet());
+        sorted.sort(Map.Entry.<Long, Long>comparingByValue().reversed());
+        for (int i = 0; i < sorted.size(); i++) {
+            Map.Entry<Long, Long> entry = sorted.get(i);
+            sketch.totalWeight = Math.addExact(sketch.totalWeight, entry.getValue());
+            if (i < capacity) {
+                sketch.insert(new Counter(entry.getKey(), entry.getValue(), 0));
+            } else if (i == capacity) {
+                sketch.absentBound = entry.getValue();
+            }
+        }
+        return sketch;
+    }
+
+    public synchronized void add(long item, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        totalWeight = Math.addExact(totalWeight, weight);
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count = Math.addExact(counter.count, weight);
+            byCount.add(counter);
+        } else if (counters.size() < capacity) {
+            // um item novo pode ter ficado de fora antes (absentBound > 0 em resumos de contagens exatas)
+            insert(new Counter(item, Math.addExact(absentBound, weight), absentBound));
+        } else {
+            Counter smallest = byCount.pollFirst();
+            counters.remove(smallest.item);
+            absentBound = Math.max(absentBound, smallest.count);
+            insert(new Counter(item, Math.addExact(smallest.count, weight), smallest.count));
+        }
+    }
+
+    public synchronized long absentBound() {
+        return absentBound;
+    }
+
+    public synchronized long totalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Merges the summaries and returns the {@code limit} items with the largest estimates, largest first.
+     */
+    public static Summary merge(Collection<SpaceSavingSketch> sketches, int limit) {
+        long baseBound = 0;
+        // Por item: soma de (contador - absentBound) e de (erro - absentBound) nos resumos que o monitoram
+        Map<Long, long[]> deltas = new HashMap<>();
+        for (SpaceSavingSketch sketch : sketches) {
+            synchronized (sketch) {
+                baseBound = Math.addExact(baseBound, sketch.absentBound);
+                for (Counter counter : sketch.counters.values()) {
+                    long[] delta = deltas.computeIfAbsent(counter.item, item -> new long[2]);
+                    delta[0] += counter.count - sketch.absentBound;
+                    delta[1] += counter.error - sketch.absentBound;
+                }
+            }
+        }
+
+        List<Estimate> candidates = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, long[]> entry : deltas.entrySet()) {
+            long[] delta = entry.getValue();
+            candidates.add(new Estimate(entry.getKey(), baseBound + delta[0], baseBound + delta[1]));
+        }
+        candidates.sort(Comparator.comparingLong(Estimate::count).reversed().thenComparingLong(Estimate::item));
+
+        List<Estimate> top = List.copyOf(candidates.subList(0, Math.min(limit, candidates.size())));
+        long unlistedBound = candidates.size() > limit
+                ? Math.max(baseBound, candidates.get(limit).count())
+                : baseBound;
+        return new Summary(top, unlistedBound);
+    }
+
+    private void insert(Counter counter) {
+        counters.put(counter.item, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * An item's estimated count, which exceeds the true count by at most {@code maxOvercount}.
+     */
+    public record Estimate(long item, long count, long maxOvercount) {
+
+        public long lowerBound() {
+            return count - maxOvercount;
+        }
+    }
+
+    /**
+     * The top estimates of a merge. No item outside {@code top} has a true count above {@code unlistedBound},
+     * so an estimate whose lower bound reaches it is certainly among the true top items.
+     */
+    public record Summary(List<Estimate> top, long unlistedBound) {
+
+        public boolean isGuaranteed(Estimate estimate) {
+            return estimate.lowerBound() >= unlistedBound;
+        }
+    }
+
+    private static final class Counter {
+        private final long item;
+        private long count;
+        private final long error;
+
+        Counter(long item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
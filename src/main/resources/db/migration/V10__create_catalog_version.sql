@@ -0,0 +1,13 @@
+-- Tabela: catalog_version
+-- Versão do catálogo incrementada a cada escrita de produto; lida pelas instâncias para invalidar o cache local
+CREATE TABLE IF NOT EXISTS catalog_version (
+    id INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL,
+    deletions BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (id, version, deletions) VALUES (1, 0, 0)
+ON CONFLICT (id) DO NOTHING;
+
+-- Produtos alterados desde a última sincronização do cache
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products(updated_at);
@@ -0,0 +1,14 @@
+-- Tabela: order_status_summary
+-- Contagem e valor total por status, mantidos na mesma transação de cada mudança de pedido
+CREATE TABLE IF NOT EXISTS order_status_summary (
+    status VARCHAR(50) PRIMARY KEY,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    total_value DECIMAL(19, 2) NOT NULL DEFAULT 0.00
+);
+
+INSERT INTO order_status_summary (status, order_count, total_value)
+SELECT s.status, COUNT(o.id), COALESCE(SUM(o.total_amount), 0.00)
+FROM (VALUES ('PENDING'), ('PROCESSING'), ('SHIPPED'), ('DELIVERED'), ('CANCELLED'), ('REFUNDED')) AS s(status)
+LEFT JOIN orders o ON o.status = s.status
+GROUP BY s.status
+ON CONFLICT (status) DO NOTHING;
@@ -0,0 +1,30 @@
+-- Tabela: daily_sales_rollup
+-- Pedidos e faturamento por dia, status e forma de pagamento, mantidos por um job incremental
+CREATE TABLE IF NOT EXISTS daily_sales_rollup (
+    sales_day DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
+    order_count BIGINT NOT NULL,
+    total_sales DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (sales_day, status, payment_method)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_sales_rollup_status_day ON daily_sales_rollup(status, sales_day);
+
+-- Tabela: sales_rollup_dirty_days
+-- Dias a recalcular mesmo sem pedidos alterados (ex.: pedido excluído)
+CREATE TABLE IF NOT EXISTS sales_rollup_dirty_days (
+    id BIGSERIAL PRIMARY KEY,
+    sales_day DATE NOT NULL,
+    marked_at TIMESTAMP NOT NULL
+);
+
+-- Tabela: report_watermarks
+CREATE TABLE IF NOT EXISTS report_watermarks (
+    name VARCHAR(100) PRIMARY KEY,
+    watermark TIMESTAMP
+);
+
+-- Índices usados pelo job: dias alterados desde o watermark e recálculo por intervalo de created_at
+CREATE INDEX IF NOT EXISTS idx_orders_updated_at ON orders(updated_at);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
@@ -0,0 +1,10 @@
+-- Índices compostos para a listagem de pedidos com predicados dinâmicos (somente os filtros ativos)
+
+-- Histórico do cliente: user_id + intervalo de created_at, ordenado por created_at/id.
+-- status e total_amount incluídos para que a página de ids seja resolvida só pelo índice (index-only scan)
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_at
+    ON orders(user_id, created_at, id) INCLUDE (status, total_amount);
+
+-- Listagem administrativa por status com intervalo de datas
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at
+    ON orders(status, created_at, id) INCLUDE (total_amount);
@@ -0,0 +1,17 @@
+-- Índices secundários para as consultas dos repositórios (ver ProductQueryRepository e OrderRepository)
+
+-- Itens do pedido: carga com @EntityGraph por order_id e verificação da FK ao excluir produtos
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);
+
+-- Catálogo: filtro por categoria (comparação com LOWER) combinado com faixa de preço
+CREATE INDEX IF NOT EXISTS idx_products_category_price ON products(LOWER(category), price);
+
+-- Catálogo: ordenação por data de cadastro com desempate por id (paginação e keyset)
+CREATE INDEX IF NOT EXISTS idx_products_created_at ON products(created_at, id);
+
+-- Estoque baixo: índice parcial só com produtos ativos
+CREATE INDEX IF NOT EXISTS idx_products_active_low_stock ON products(stock_quantity, id) WHERE active = TRUE;
+
+-- Limpeza dos dias marcados para recálculo do rollup de vendas
+CREATE INDEX IF NOT EXISTS idx_sales_rollup_dirty_days_marked_at ON sales_rollup_dirty_days(marked_at);
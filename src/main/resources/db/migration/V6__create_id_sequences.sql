@@ -0,0 +1,19 @@
+-- Sequências para os ids das entidades (StoreIdGenerator, otimizador pooled).
+-- INCREMENT BY deve ser igual ao increment_size do gerador (50): cada nextval reserva 50 ids em memória,
+-- o que permite ao Hibernate agrupar os INSERTs em lote (com IDENTITY cada linha exige uma ida ao banco).
+-- O primeiro nextval devolve MAX(id) + 50, e o bloco reservado começa em MAX(id) + 1.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
+
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+SELECT setval('products_seq', COALESCE(MAX(id), 0) + 50, false) FROM products;
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE(MAX(id), 0) + 50, false) FROM orders;
+
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', COALESCE(MAX(id), 0) + 50, false) FROM order_items;
+
+CREATE SEQUENCE IF NOT EXISTS sales_rollup_dirty_days_seq INCREMENT BY 50;
+SELECT setval('sales_rollup_dirty_days_seq', COALESCE(MAX(id), 0) + 50, false) FROM sales_rollup_dirty_days;
@@ -0,0 +1,13 @@
+-- Tabela: idempotency_keys
+-- Resultado de POST /api/orders por (usuário, Idempotency-Key), removido após expires_at
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    order_id BIGINT,
+    response TEXT,
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,18 @@
+-- Tabela: report_jobs
+-- Jobs de relatório assíncronos e seus resultados, visíveis a todas as instâncias até expirarem
+CREATE TABLE IF NOT EXISTS report_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    progress INTEGER NOT NULL DEFAULT 0,
+    start_date TIMESTAMP(6) NOT NULL,
+    end_date TIMESTAMP(6) NOT NULL,
+    submitted_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    error TEXT,
+    result TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_report_jobs_owner_status ON report_jobs(owner_id, status);
+CREATE INDEX IF NOT EXISTS idx_report_jobs_completed_at ON report_jobs(completed_at);
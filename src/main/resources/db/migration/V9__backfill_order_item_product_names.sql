@@ -0,0 +1,6 @@
+-- Backfill: order_items.product_name
+-- Até aqui o nome gravado no item era o enviado pelo cliente (em geral nulo) e a leitura usava products.name.
+-- Agora a leitura usa o nome gravado no item, então os itens antigos recebem o nome atual do produto,
+-- o mesmo que exibiam antes.
+UPDATE order_items i
+SET product_name = (SELECT p.name FROM products p WHERE p.id = i.product_id);
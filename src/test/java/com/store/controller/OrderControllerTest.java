@@ -4,6 +4,7 @@ import com.store.dto.OrderDTO;
 import com.store.dto.OrderFilterDTO;
 import com.store.entity.Order;
 import com.store.entity.Order.OrderStatus;
+import com.store.service.OrderIdempotencyService;
 import com.store.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,9 @@ class OrderControllerTest {
     @Mock
     private OrderService orderService;
 
+    @Mock
+    private OrderIdempotencyService orderIdempotencyService;
+
     @InjectMocks
     private OrderController orderController;
 
@@ -69,14 +73,16 @@ class OrderControllerTest {
 
     @Test
     void createOrder_ShouldReturnCreatedOrder() {
-        when(orderService.createOrder(any(OrderDTO.class))).thenReturn(orderDTO);
+        when(orderIdempotencyService.createOrder(null, orderDTO))
+                .thenReturn(new OrderIdempotencyService.Result(orderDTO, false));
 
-        ResponseEntity<OrderDTO> response = orderController.createOrder(orderDTO);
+        ResponseEntity<OrderDTO> response = orderController.createOrder(null, orderDTO);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(orderDTO.getId(), response.getBody().getId());
-        verify(orderService).createOrder(orderDTO);
+        assertEquals("false", response.getHeaders().getFirst("Idempotent-Replayed"));
+        verify(orderIdempotencyService).createOrder(null, orderDTO);
     }
 
     @Test
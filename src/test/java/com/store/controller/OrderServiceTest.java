@@ -6,6 +6,7 @@ import com.store.entity.Order;
 import com.store.entity.Order.OrderStatus;
 import com.store.exceptions.OrderNotFoundException;
 import com.store.mapper.OrderMapper;
+import com.store.repository.OrderQueryRepository;
 import com.store.repository.OrderRepository;
 import com.store.service.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +35,9 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderQueryRepository orderQueryRepository;
+
     @Mock
     private OrderMapper orderMapper;
 
@@ -49,6 +53,15 @@ class OrderServiceTest {
     @Mock
     private OrderStatusService orderStatusService;
 
+    @Mock
+    private OrderStatusSummaryService orderStatusSummaryService;
+
+    @Mock
+    private DailySalesRollupService dailySalesRollupService;
+
+    @Mock
+    private ReportCache reportCache;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -91,10 +104,10 @@ class OrderServiceTest {
 
     @Test
     void findOrders_WithFilters_ShouldReturnFilteredOrders() {
-        Page<Order> orderPage = new PageImpl<>(Collections.singletonList(order));
-        when(orderRepository.findOrdersByFilters(
-                any(), any(), any(), any(), any(), any(), any()
-        )).thenReturn(orderPage);
+        Page<Long> orderIdPage = new PageImpl<>(Collections.singletonList(order.getId()));
+        when(orderQueryRepository.findIdsPage(any(), any(), any())).thenReturn(orderIdPage);
+        when(orderRepository.findWithItemsByIdIn(orderIdPage.getContent()))
+                .thenReturn(Collections.singletonList(order));
         when(orderMapper.toDTO(order)).thenReturn(orderDTO);
 
         Page<OrderDTO> result = orderService.findOrders(filterDTO, pageable);
@@ -157,17 +170,18 @@ class OrderServiceTest {
 
     @Test
     void deleteOrder_WhenOrderExists_ShouldDelete() {
-        when(orderRepository.existsById(1L)).thenReturn(true);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
 
         assertDoesNotThrow(() -> orderService.deleteOrder(1L));
-        verify(orderRepository).deleteById(1L);
+        verify(orderStatusSummaryService).recordDeleted(order);
+        verify(orderRepository).delete(order);
     }
 
     @Test
     void deleteOrder_WhenOrderNotFound_ShouldThrowException() {
-        when(orderRepository.existsById(1L)).thenReturn(false);
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(OrderNotFoundException.class, () -> orderService.deleteOrder(1L));
-        verify(orderRepository, never()).deleteById(anyLong());
+        verify(orderRepository, never()).delete(any(Order.class));
     }
 }
\ No newline at end of file
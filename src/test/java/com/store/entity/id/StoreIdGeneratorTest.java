@@ -0,0 +1,28 @@
+package com.store.entity.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreIdGeneratorTest {
+
+    @Test
+    void configure_SnowflakeWithoutNodeId_ShouldFail() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(StoreIdGenerator.STRATEGY_SETTING, "snowflake")
+                .applySetting(StoreIdGenerator.NODE_ID_SETTING, "")
+                .build();
+        try {
+            MappingException ex = assertThrows(MappingException.class,
+                    () -> new StoreIdGenerator().configure(null, new Properties(), registry));
+            assertTrue(ex.getMessage().contains(StoreIdGenerator.NODE_ID_SETTING));
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.store.repository;
+
+import com.store.entity.Order;
+import com.store.entity.OrderItem;
+import com.store.entity.Product;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@ActiveProfiles("test")
+class OrderInsertBatchingTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Statistics statistics;
+    private User user;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = new User();
+        user.setUsername("ana");
+        user.setPassword("secret");
+        user.setEmail("ana@store.com");
+        user.setRoles(Set.of(UserRole.CLIENT));
+        entityManager.persist(user);
+
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product();
+            product.setName("Produto " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(100);
+            product.setActive(true);
+            products.add(entityManager.persist(product));
+        }
+        // reserva os blocos de ids: o primeiro nextval devolve só o valor inicial, os seguintes reservam 50
+        saveOrder(1);
+        saveOrder(1);
+    }
+
+    private Order saveOrder(int itemCount) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setShippingAddress("Rua A");
+        order.setPaymentMethod(Order.PaymentMethod.BOLETO);
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(new OrderItem(products.get(i), 1));
+        }
+        Order saved = orderRepository.save(order);
+        entityManager.flush();
+        return saved;
+    }
+
+    @Test
+    void saveOrder_ShouldInsertOrderAndItemsInOneBatchPerTable() {
+        statistics.clear();
+
+        Order order = saveOrder(20);
+
+        assertNotNull(order.getId());
+        assertEquals(20, order.getItems().stream().map(OrderItem::getId).distinct().count());
+        // um INSERT em orders e um INSERT em lote em order_items, sem ida ao banco por id
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
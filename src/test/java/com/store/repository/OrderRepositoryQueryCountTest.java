@@ -0,0 +1,161 @@
+package com.store.repository;
+
+import com.store.dto.OrderDTO;
+import com.store.dto.OrderFilterDTO;
+import com.store.entity.Order;
+import com.store.entity.OrderItem;
+import com.store.entity.Product;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.mapper.OrderMapper;
+import com.store.mapper.OrderMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({OrderMapperImpl.class, OrderQueryRepository.class})
+class OrderRepositoryQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderQueryRepository orderQueryRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    private Statistics statistics;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        users = List.of(user("ana"), user("bruno"), user("carla"));
+        List<Product> products = List.of(product("Mouse"), product("Teclado"), product("Monitor"));
+
+        for (int i = 0; i < 120; i++) {
+            Order order = new Order();
+            order.setUser(users.get(i % users.size()));
+            order.setShippingAddress("Rua " + i);
+            order.setPaymentMethod(Order.PaymentMethod.BOLETO);
+            for (Product product : products) {
+                order.addItem(new OrderItem(product, 1 + i % 3));
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@store.com");
+        user.setRoles(Set.of(UserRole.CLIENT));
+        return entityManager.persist(user);
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("25.00"));
+        product.setStockQuantity(100);
+        product.setActive(true);
+        return entityManager.persist(product);
+    }
+
+    private long statementsForPage(int pageSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        Page<Long> ids = orderQueryRepository.findIdsPage(
+                new OrderFilterDTO(), null, PageRequest.of(1, pageSize, Sort.by("id")));
+        List<OrderDTO> dtos = orderRepository.findWithItemsByIdIn(ids.getContent()).stream()
+                .map(orderMapper::toDTO)
+                .toList();
+
+        assertEquals(pageSize, dtos.size());
+        dtos.forEach(dto -> {
+            assertNotNull(dto.getUserId());
+            assertEquals(3, dto.getItems().size());
+            dto.getItems().forEach(item -> {
+                assertNotNull(item.getProductId());
+                assertNotNull(item.getProductName());
+            });
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void orderPage_ShouldUseConstantNumberOfQueriesRegardlessOfPageSize() {
+        long smallPage = statementsForPage(5);
+        long largePage = statementsForPage(50);
+
+        // página de ids com o total (COUNT(*) OVER ()) + pedidos com itens
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void customerHistoryPage_ShouldFilterByUserAndCountInSameStatement() {
+        statistics.clear();
+        OrderFilterDTO filterDTO = new OrderFilterDTO();
+        filterDTO.setStatus(Order.OrderStatus.PENDING);
+
+        Page<Long> ids = orderQueryRepository.findIdsPage(filterDTO, users.get(0).getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertEquals(40, ids.getTotalElements());
+        assertEquals(10, ids.getContent().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        orderRepository.findAllById(ids.getContent())
+                .forEach(order -> assertEquals(users.get(0).getId(), order.getUser().getId()));
+    }
+
+    @Test
+    void orderItemWithoutStoredName_ShouldShowTheProductName() {
+        Long orderId = orderQueryRepository.findIdsPage(new OrderFilterDTO(), null,
+                PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0);
+        // Item gravado antes do snapshot do nome
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE order_items SET product_name = NULL WHERE order_id = :orderId")
+                .setParameter("orderId", orderId)
+                .executeUpdate();
+        entityManager.clear();
+
+        OrderDTO dto = orderMapper.toDTO(orderRepository.findWithItemsByIdIn(List.of(orderId)).get(0));
+
+        assertEquals(Set.of("Mouse", "Teclado", "Monitor"), dto.getItems().stream()
+                .map(OrderDTO.OrderItemDTO::getProductName)
+                .collect(Collectors.toSet()));
+    }
+}
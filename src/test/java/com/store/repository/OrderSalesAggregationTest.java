@@ -0,0 +1,108 @@
+package com.store.repository;
+
+import com.store.dto.ReportDTO.DailySalesDTO;
+import com.store.dto.ReportDTO.SalesReportDTO;
+import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.Order.PaymentMethod;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.mapper.OrderReportMapper;
+import com.store.mapper.OrderReportMapperImpl;
+import com.store.repository.projection.DailySalesAggregate;
+import com.store.service.SalesAggregator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderReportMapperImpl.class, SalesAggregator.class})
+class OrderSalesAggregationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderReportMapper orderReportMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("ana");
+        user.setPassword("secret");
+        user.setEmail("ana@store.com");
+        user.setRoles(Set.of(UserRole.CLIENT));
+        entityManager.persist(user);
+
+        order(FIRST_DAY.atTime(9, 0), PaymentMethod.CARTAO_DE_CREDITO, OrderStatus.DELIVERED, "10.00");
+        order(FIRST_DAY.atTime(23, 59), PaymentMethod.CARTAO_DE_CREDITO, OrderStatus.DELIVERED, "20.00");
+        order(FIRST_DAY.atTime(12, 0), PaymentMethod.BOLETO, OrderStatus.DELIVERED, "5.00");
+        order(FIRST_DAY.plusDays(2).atTime(8, 30), null, OrderStatus.DELIVERED, "7.50");
+        order(FIRST_DAY.plusDays(2).atTime(8, 30), PaymentMethod.CARTAO_DE_CREDITO, OrderStatus.CANCELLED, "99.00");
+        order(FIRST_DAY.plusDays(5).atTime(8, 30), PaymentMethod.CARTAO_DE_CREDITO, OrderStatus.DELIVERED, "99.00");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void order(LocalDateTime createdAt, PaymentMethod paymentMethod, OrderStatus status, String total) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setShippingAddress("Rua A, 100");
+        order.setPaymentMethod(paymentMethod);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal(total));
+        entityManager.persist(order);
+        entityManager.flush();
+        // createdAt é preenchido pela auditoria; sobrescrevemos para controlar o dia
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Order o SET o.createdAt = :createdAt WHERE o.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", order.getId())
+                .executeUpdate();
+    }
+
+    @Test
+    void salesReport_ShouldBeAggregatedPerDayAndPaymentMethod() {
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        LocalDateTime end = FIRST_DAY.plusDays(2).atTime(23, 59, 59);
+
+        List<DailySalesAggregate> rows = orderRepository.aggregateSalesByDayAndPaymentMethod(
+                start, end, OrderStatus.DELIVERED);
+        SalesReportDTO report = orderReportMapper.toSalesReportDTO(rows, start, end);
+
+        assertEquals(3, rows.size());
+        assertEquals(4, report.getTotalOrders());
+        assertEquals(0, new BigDecimal("42.50").compareTo(report.getTotalSales()));
+        assertEquals(0, new BigDecimal("10.63").compareTo(report.getAverageOrderValue()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(report.getSalesByPaymentMethod().get("CARTAO_DE_CREDITO")));
+        assertEquals(0, new BigDecimal("7.50").compareTo(report.getSalesByPaymentMethod().get("UNKNOWN")));
+
+        List<DailySalesDTO> dailySales = report.getDailySales();
+        assertEquals(3, dailySales.size());
+        assertEquals(3, dailySales.get(0).getOrderCount());
+        assertEquals(0, new BigDecimal("35.00").compareTo(dailySales.get(0).getTotalSales()));
+        assertEquals(0, dailySales.get(1).getOrderCount());
+        assertEquals(FIRST_DAY.plusDays(1).atStartOfDay(), dailySales.get(1).getDate());
+        assertEquals(1, dailySales.get(2).getOrderCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.store.repository;
+
+import com.store.dto.ProductFilterDTO;
+import com.store.entity.Product;
+import com.store.exceptions.InvalidSortException;
+import com.store.repository.query.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ProductQueryRepository.class)
+class ProductQueryRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductQueryRepository productQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 47; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            // Preços repetidos para exercitar o desempate por id
+            product.setPrice(BigDecimal.valueOf(10 + i % 7));
+            product.setCategory(i % 2 == 0 ? "eletronicos" : "livros");
+            product.setStockQuantity(i);
+            product.setActive(true);
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void scroll_ShouldVisitEveryMatchingProductOnceInSortOrder() {
+        ProductFilterDTO filterDTO = new ProductFilterDTO();
+        filterDTO.setCategory("ELETRONICOS");
+
+        List<Product> visited = new ArrayList<>();
+        KeysetCursor cursor = null;
+        do {
+            List<Object[]> rows = productQueryRepository.scroll(filterDTO, "price", Sort.Direction.DESC, cursor, 6);
+            List<Object[]> page = rows.size() > 5 ? rows.subList(0, 5) : rows;
+            page.forEach(row -> visited.add((Product) row[0]));
+
+            if (rows.size() > 5) {
+                Object[] last = page.get(page.size() - 1);
+                // Round trip pelo formato opaco, como faria o cliente
+                String token = KeysetCursor.of("price", Sort.Direction.DESC, ((Product) last[0]).getId(), last[1]).encode();
+                cursor = KeysetCursor.decode(token);
+            } else {
+                cursor = null;
+            }
+        } while (cursor != null);
+
+        List<Product> expected = visited.stream()
+                .sorted(Comparator.comparing(Product::getPrice).reversed()
+                        .thenComparing(Product::getId, Comparator.reverseOrder()))
+                .toList();
+
+        assertEquals(24, visited.size());
+        assertEquals(expected, visited);
+        assertTrue(visited.stream().allMatch(product -> product.getCategory().equals("eletronicos")));
+    }
+
+    @Test
+    void findPage_ShouldCombineEveryCriterionAndCountInTheSameQuery() {
+        ProductFilterDTO filterDTO = new ProductFilterDTO();
+        filterDTO.setCategory("livros");
+        filterDTO.setMinPrice(BigDecimal.valueOf(12));
+        filterDTO.setLowStockThreshold(30);
+
+        Page<Product> page = productQueryRepository.findPage(filterDTO, "product 2", null,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price")));
+
+        // Livros (ímpares) com "product 2" no nome e estoque <= 30: 21..29; com preço >= 12 restam 23, 25 e 27
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(product ->
+                product.getCategory().equals("livros")
+                        && product.getStockQuantity() <= 30
+                        && product.getPrice().compareTo(BigDecimal.valueOf(12)) >= 0));
+        assertEquals(List.of(27L, 25L), page.getContent().stream().map(Product::getStockQuantity).map(Long::valueOf).toList());
+    }
+
+    @Test
+    void findPage_WithUnknownSortProperty_ShouldBeRejected() {
+        assertThrows(InvalidSortException.class, () -> productQueryRepository.findPage(
+                new ProductFilterDTO(), null, null, PageRequest.of(0, 10, Sort.by("stockQuantity"))));
+    }
+}
@@ -0,0 +1,86 @@
+package com.store.repository;
+
+import com.store.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the real Flyway migrations on PostgreSQL and starts JPA with {@code ddl-auto=validate}, so a migration
+ * that drifts from the entity mappings fails here instead of at deploy time. Skipped when Docker is unavailable.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void migrations_ShouldMatchTheEntityMappings() {
+        // O contexto só sobe se o Hibernate validou todas as tabelas, colunas e sequências
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'public'", String.class);
+        assertTrue(tables.containsAll(List.of("idempotency_keys", "report_jobs", "catalog_version")));
+
+        Integer failed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM flyway_schema_history WHERE success = FALSE", Integer.class);
+        assertEquals(0, failed);
+    }
+
+    @Test
+    void idSequences_ShouldIncrementByTheGeneratorBlockSize() {
+        // O otimizador pooled reserva 50 ids por nextval; outro INCREMENT BY geraria ids repetidos
+        List<Map<String, Object>> sequences = jdbcTemplate.queryForList("""
+                SELECT sequencename, increment_by FROM pg_sequences
+                WHERE sequencename IN ('users_seq', 'products_seq', 'orders_seq', 'order_items_seq',
+                                       'sales_rollup_dirty_days_seq')
+                """);
+        assertEquals(5, sequences.size());
+        sequences.forEach(sequence ->
+                assertEquals(50L, ((Number) sequence.get("increment_by")).longValue(), sequence.toString()));
+
+        Product first = productRepository.saveAndFlush(product("Mouse"));
+        Product second = productRepository.saveAndFlush(product("Teclado"));
+        assertEquals(first.getId() + 1, second.getId());
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1);
+        return product;
+    }
+}
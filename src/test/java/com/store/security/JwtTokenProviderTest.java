@@ -0,0 +1,85 @@
+package com.store.security;
+
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtTokenProviderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserIdResolver userIdResolver;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userIdResolver = mock(UserIdResolver.class);
+        tokenProvider = new JwtTokenProvider(new JwtAuthenticationCache(100, meterRegistry), userIdResolver);
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "64cc63079da9a5dfd1ce20c65e2cee9ae5c7a79112ecf32c0b77e7c4c4c2a52b");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 60_000);
+        tokenProvider.init();
+    }
+
+    private String token() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                "alice", null, List.of(new SimpleGrantedAuthority("ROLE_CLIENT")));
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Test
+    void resolveAuthentication_ShouldReturnCachedAuthenticationOnSecondCall() {
+        String token = token();
+
+        Optional<Authentication> first = tokenProvider.resolveAuthentication(token);
+        Optional<Authentication> second = tokenProvider.resolveAuthentication(token);
+
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals("alice", first.get().getName());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.authentication").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void resolveAuthentication_WithUserIdClaim_ShouldNotLookUpUser() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("bob");
+        user.setRoles(Set.of(UserRole.ADMIN));
+        String token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        AuthenticatedUser principal = (AuthenticatedUser) tokenProvider.resolveAuthentication(token)
+                .orElseThrow()
+                .getPrincipal();
+
+        assertEquals(42L, principal.id());
+        assertTrue(principal.isAdmin());
+        verifyNoInteractions(userIdResolver);
+    }
+
+    @Test
+    void resolveAuthentication_WithTamperedToken_ShouldReturnEmpty() {
+        String token = token();
+        // primeiro caractere da assinatura: os seis bits são dados, ao contrário do último, que tem padding
+        int signature = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(signature) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signature) + replacement + token.substring(signature + 1);
+
+        assertTrue(tokenProvider.resolveAuthentication(tampered).isEmpty());
+        assertFalse(tokenProvider.validateToken(tampered));
+    }
+}
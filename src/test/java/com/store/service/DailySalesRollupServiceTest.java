@@ -0,0 +1,137 @@
+package com.store.service;
+
+import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.Order.PaymentMethod;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.repository.DailySalesRollupRepository;
+import com.store.repository.OrderRepository;
+import com.store.repository.projection.DailySalesAggregate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({DailySalesRollupService.class, ReportCache.class, TopProductsSketch.class, SimpleMeterRegistry.class})
+class DailySalesRollupServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DailySalesRollupService rollupService;
+
+    @Autowired
+    private DailySalesRollupRepository rollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private User user;
+    private Order twoDaysAgo;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("ana");
+        user.setPassword("secret");
+        user.setEmail("ana@store.com");
+        user.setRoles(Set.of(UserRole.CLIENT));
+        entityManager.persist(user);
+
+        order(TODAY.minusDays(3).atTime(10, 0), PaymentMethod.BOLETO, "10.00");
+        order(TODAY.minusDays(3).atTime(11, 0), null, "5.00");
+        twoDaysAgo = order(TODAY.minusDays(2).atTime(9, 0), PaymentMethod.CARTAO_DE_CREDITO, "20.00");
+        order(TODAY.atStartOfDay(), PaymentMethod.BOLETO, "7.00");
+        entityManager.clear();
+    }
+
+    private Order order(LocalDateTime createdAt, PaymentMethod paymentMethod, String total) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setShippingAddress("Rua A, 100");
+        order.setPaymentMethod(paymentMethod);
+        order.setStatus(OrderStatus.DELIVERED);
+        order.setTotalAmount(new BigDecimal(total));
+        entityManager.persist(order);
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Order o SET o.createdAt = :createdAt WHERE o.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", order.getId())
+                .executeUpdate();
+        return order;
+    }
+
+    private BigDecimal totalSales(LocalDateTime start, LocalDateTime end) {
+        return rollupService.aggregate(start, end, OrderStatus.DELIVERED).stream()
+                .map(DailySalesAggregate::totalSales)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Test
+    void refresh_ShouldRollUpEveryDayAndServeFinishedDaysFromTheRollup() {
+        rollupService.refresh();
+
+        assertEquals(4, rollupRepository.count());
+        LocalDateTime start = TODAY.minusDays(5).atStartOfDay();
+        LocalDateTime end = LocalDateTime.now().plusMinutes(1);
+        assertEquals(0, new BigDecimal("42.00").compareTo(totalSales(start, end)));
+
+        // Alteração fora do ORM, sem tocar em updated_at: dias fechados continuam vindo do rollup
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE orders SET total_amount = 1000 WHERE id = :id")
+                .setParameter("id", twoDaysAgo.getId())
+                .executeUpdate();
+        assertEquals(0, new BigDecimal("42.00").compareTo(totalSales(start, end)));
+    }
+
+    @Test
+    void refresh_ShouldCorrectDaysWithLateStatusChangesAndDeletes() {
+        rollupService.refresh();
+        LocalDateTime start = TODAY.minusDays(5).atStartOfDay();
+        LocalDateTime end = LocalDateTime.now().plusMinutes(1);
+
+        Order changed = orderRepository.findById(twoDaysAgo.getId()).orElseThrow();
+        changed.setStatus(OrderStatus.REFUNDED);
+        orderRepository.saveAndFlush(changed);
+        rollupService.refresh();
+        assertEquals(0, new BigDecimal("22.00").compareTo(totalSales(start, end)));
+
+        Order deleted = orderRepository.findAll().stream()
+                .filter(order -> order.getPaymentMethod() == null)
+                .findFirst()
+                .orElseThrow();
+        rollupService.markDirty(deleted.getCreatedAt());
+        orderRepository.delete(deleted);
+        orderRepository.flush();
+        rollupService.refresh();
+        assertEquals(0, new BigDecimal("17.00").compareTo(totalSales(start, end)));
+    }
+
+    @Test
+    void aggregate_WithPartialEdgeDays_ShouldComputeThemLive() {
+        rollupService.refresh();
+
+        LocalDateTime start = TODAY.minusDays(3).atTime(10, 30);
+        LocalDateTime end = TODAY.minusDays(2).atTime(8, 0);
+
+        assertEquals(0, new BigDecimal("5.00").compareTo(totalSales(start, end)));
+    }
+}
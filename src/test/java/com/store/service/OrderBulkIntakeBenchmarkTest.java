@@ -0,0 +1,158 @@
+package com.store.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.BulkOrderResultDTO;
+import com.store.dto.OrderDTO;
+import com.store.entity.Product;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.mapper.OrderMapperImpl;
+import com.store.repository.ProductRepository;
+import com.store.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares order intake throughput between one transaction per order (as with individual
+ * {@code POST /api/orders} calls) and {@code POST /api/orders/bulk}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+@ActiveProfiles("test")
+@Import({OrderBulkIntakeService.class, OrderCreationService.class, ProductStockService.class, HotStockLedger.class,
+        ProductCatalogCache.class, OrderStatusSummaryService.class, ReportCache.class, TopProductsSketch.class, OrderMapperImpl.class,
+        SimpleMeterRegistry.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderBulkIntakeBenchmarkTest {
+
+    private static final int ORDERS = 5_000;
+    private static final int PRODUCTS = 50;
+
+    @Autowired
+    private OrderBulkIntakeService bulkIntakeService;
+
+    @Autowired
+    private OrderCreationService orderCreationService;
+
+    @Autowired
+    private OrderStatusSummaryService orderStatusSummaryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private OrderAuthorizationService orderAuthorizationService;
+
+    @Test
+    void compareSingleAndBulkIntakeThroughput() throws Exception {
+        User user = new User();
+        user.setUsername("marketplace");
+        user.setPassword("secret");
+        user.setEmail("marketplace@store.com");
+        user.setRoles(Set.of(UserRole.CLIENT));
+        when(orderAuthorizationService.getCurrentUserReference()).thenReturn(userRepository.save(user));
+
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Produto " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(1_000_000);
+            product.setActive(true);
+            productIds.add(productRepository.save(product).getId());
+        }
+        List<OrderDTO> orders = orders(productIds);
+
+        // Aquecimento da JIT e do pool de conexões
+        single(orders.subList(0, 500));
+        bulk(orders.subList(0, 500));
+
+        double singleOps = single(orders);
+        double bulkOps = bulk(orders);
+
+        log.info("One transaction per order: {} orders/s", String.format("%.0f", singleOps));
+        log.info("Bulk intake: {} orders/s ({}x)", String.format("%.0f", bulkOps),
+                String.format("%.1f", bulkOps / singleOps));
+    }
+
+    private List<OrderDTO> orders(List<Long> productIds) {
+        List<OrderDTO> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            OrderDTO orderDTO = new OrderDTO();
+            orderDTO.setShippingAddress("Rua " + i);
+            orderDTO.setPaymentMethod("BOLETO");
+            orderDTO.setShippingCost(BigDecimal.ZERO);
+            orderDTO.setTaxAmount(BigDecimal.ZERO);
+            orderDTO.setDiscountAmount(BigDecimal.ZERO);
+            for (int j = 0; j < 3; j++) {
+                orderDTO.getItems().add(new OrderDTO.OrderItemDTO(
+                        null, productIds.get((i + j * 7) % productIds.size()), null, 1, null));
+            }
+            orders.add(orderDTO);
+        }
+        return orders;
+    }
+
+    private double single(List<OrderDTO> orders) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long startedAt = System.nanoTime();
+        for (OrderDTO orderDTO : orders) {
+            transactionTemplate.executeWithoutResult(status ->
+                    orderStatusSummaryService.recordCreated(orderCreationService.createOrder(orderDTO)));
+        }
+        return orders.size() / ((System.nanoTime() - startedAt) / 1_000_000_000.0);
+    }
+
+    private double bulk(List<OrderDTO> orders) throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (OrderDTO orderDTO : orders) {
+            body.append(objectMapper.writeValueAsString(orderDTO)).append('\n');
+        }
+        byte[] bytes = body.toString().getBytes();
+
+        long startedAt = System.nanoTime();
+        BulkOrderResultDTO result = bulkIntakeService.intake(new ByteArrayInputStream(bytes));
+        long elapsed = System.nanoTime() - startedAt;
+
+        assertEquals(orders.size(), result.getCreated());
+        return orders.size() / (elapsed / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.store.service;
+
+import com.store.dto.BulkOrderResultDTO;
+import com.store.dto.BulkOrderResultDTO.OrderResult;
+import com.store.entity.Product;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.mapper.OrderMapperImpl;
+import com.store.repository.OrderRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderBulkIntakeService.class, OrderCreationService.class, ProductStockService.class, HotStockLedger.class,
+        ProductCatalogCache.class, OrderStatusSummaryService.class, ReportCache.class, TopProductsSketch.class, OrderMapperImpl.class,
+        SimpleMeterRegistry.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderBulkIntakeServiceTest {
+
+    @Autowired
+    private OrderBulkIntakeService bulkIntakeService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private OrderAuthorizationService orderAuthorizationService;
+
+    private Product mouse;
+    private Product keyboard;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("marketplace");
+        user.setPassword("secret");
+        user.setEmail("marketplace@store.com");
+        user.setRoles(Set.of(UserRole.CLIENT));
+        User saved = userRepository.save(user);
+        when(orderAuthorizationService.getCurrentUserReference()).thenReturn(saved);
+
+        mouse = product("Mouse", 5);
+        keyboard = product("Teclado", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Product product(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(stock);
+        product.setActive(true);
+        return productRepository.save(product);
+    }
+
+    private String order(Product product, int quantity) {
+        return """
+                {"shippingAddress":"Rua A","paymentMethod":"BOLETO","shippingCost":0,"taxAmount":0,"discountAmount":0,"items":[{"productId":%d,"quantity":%d},{"productId":%d,"quantity":1}]}
+                """.formatted(product.getId(), quantity, keyboard.getId());
+    }
+
+    private BulkOrderResultDTO intake(String body) throws Exception {
+        return bulkIntakeService.intake(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void intake_ShouldCreateValidOrdersAndReportEachFailure() throws Exception {
+        String body = order(mouse, 2)
+                + order(mouse, 2)
+                + "{\"shippingAddress\":\"Rua B\",\"items\":[]}\n"
+                + order(mouse, 2)
+                + order(keyboard, 3);
+
+        BulkOrderResultDTO result = intake(body);
+
+        assertEquals(5, result.getReceived());
+        assertEquals(3, result.getCreated());
+        List<OrderResult> results = result.getResults();
+        assertEquals(List.of("CREATED", "CREATED", "FAILED", "FAILED", "CREATED"),
+                results.stream().map(OrderResult::getStatus).toList());
+        assertTrue(results.get(2).getError().contains("at least one item"));
+        assertTrue(results.get(3).getError().contains("Mouse"));
+
+        assertEquals(1, productRepository.findById(mouse.getId()).orElseThrow().getStockQuantity());
+        // três pedidos com um item de teclado cada, e o último com mais três
+        assertEquals(94, productRepository.findById(keyboard.getId()).orElseThrow().getStockQuantity());
+        assertEquals(3, orderRepository.count());
+        assertEquals(2, orderRepository.findWithItemsByIdIn(List.of(results.get(0).getOrderId()))
+                .get(0).getItems().size());
+    }
+
+    @Test
+    void intake_WithMalformedLine_ShouldKeepEarlierOrdersAndStopReading() throws Exception {
+        String body = order(mouse, 1) + "{\"shippingAddress\" oops}\n" + order(mouse, 1);
+
+        BulkOrderResultDTO result = intake(body);
+
+        assertEquals(1, result.getCreated());
+        assertEquals("FAILED", result.getResults().get(1).getStatus());
+        assertTrue(result.getResults().get(1).getError().startsWith("Malformed JSON"));
+        assertEquals(4, productRepository.findById(mouse.getId()).orElseThrow().getStockQuantity());
+    }
+}
@@ -0,0 +1,130 @@
+package com.store.service;
+
+import com.store.dto.OrderDTO;
+import com.store.entity.Order;
+import com.store.entity.OrderItem;
+import com.store.entity.Product;
+import com.store.entity.User;
+import com.store.exceptions.ProductNotFoundException;
+import com.store.mapper.OrderMapper;
+import com.store.mapper.OrderMapperImpl;
+import com.store.repository.OrderRepository;
+import com.store.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCreationServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderAuthorizationService orderAuthorizationService;
+
+    @Mock
+    private ProductStockService productStockService;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private TopProductsSketch topProductsSketch;
+
+    @InjectMocks
+    private OrderCreationService orderCreationService;
+
+    private OrderDTO orderDTO;
+
+    @BeforeEach
+    void setUp() {
+        orderDTO = new OrderDTO();
+        orderDTO.setShippingAddress("Rua A, 100");
+        List<OrderDTO.OrderItemDTO> items = new ArrayList<>();
+        LongStream.rangeClosed(1, 40).forEach(id ->
+                items.add(new OrderDTO.OrderItemDTO(null, id, null, 2, null)));
+        orderDTO.setItems(items);
+
+        when(orderMapper.toOrder(orderDTO)).thenReturn(new Order());
+        when(orderAuthorizationService.getCurrentUserReference()).thenReturn(new User());
+    }
+
+    private Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal("5.00"));
+        product.setStockQuantity(10);
+        product.setActive(true);
+        return product;
+    }
+
+    @Test
+    void createOrder_ShouldLoadAllProductsInOneQueryAndReserveOnce() {
+        List<Product> products = LongStream.rangeClosed(1, 40).mapToObj(this::product).toList();
+        when(productRepository.findAllById(anyCollection())).thenReturn(products);
+        when(orderMapper.toOrderItem(any(OrderDTO.OrderItemDTO.class), any(Order.class), any(Product.class)))
+                .thenAnswer(invocation -> {
+                    OrderDTO.OrderItemDTO itemDTO = invocation.getArgument(0);
+                    return new OrderItem(invocation.getArgument(2), itemDTO.getQuantity());
+                });
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Order order = orderCreationService.createOrder(orderDTO);
+
+        assertEquals(40, order.getItems().size());
+        assertEquals(new BigDecimal("400.00"), order.getTotalAmount());
+        verify(productRepository, times(1)).findAllById(anyCollection());
+        verify(productRepository, never()).findById(anyLong());
+        verify(productStockService, times(1)).reserveStock(anyMap());
+    }
+
+    @Test
+    void createOrder_ShouldSnapshotProductNameFromLoadedProduct() {
+        OrderMapper generatedMapper = new OrderMapperImpl();
+        orderDTO.setItems(List.of(new OrderDTO.OrderItemDTO(null, 1L, "Nome forjado", 1, null)));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product(1)));
+        when(orderMapper.toOrderItem(any(OrderDTO.OrderItemDTO.class), any(Order.class), any(Product.class)))
+                .thenAnswer(invocation -> generatedMapper.toOrderItem(
+                        invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderCreationService.createOrder(orderDTO);
+
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(saved.capture());
+        OrderItem item = saved.getValue().getItems().get(0);
+        assertEquals("Product 1", item.getProductName());
+        assertEquals(new BigDecimal("5.00"), item.getPrice());
+        assertEquals("Product 1", generatedMapper.toOrderItemDTO(item).getProductName());
+    }
+
+    @Test
+    void createOrder_WithUnknownProduct_ShouldNotReserveStock() {
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product(1)));
+        doThrow(new ProductNotFoundException(2L))
+                .when(productStockService).validateAvailability(anyMap(), anyMap());
+
+        assertThrows(ProductNotFoundException.class, () -> orderCreationService.createOrder(orderDTO));
+        verify(productStockService, never()).reserveStock(any(Map.class));
+        verify(orderRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,129 @@
+package com.store.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.OrderFilterDTO;
+import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.repository.OrderQueryRepository;
+import com.store.repository.OrderRepository;
+import com.store.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "store.orders.export.fetch-size=2")
+@ActiveProfiles("test")
+@Import({OrderExportService.class, OrderQueryRepository.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExportServiceTest {
+
+    @Autowired
+    private OrderExportService exportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private OrderAuthorizationService orderAuthorizationService;
+
+    private Order first;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("financeiro");
+        user.setPassword("secret");
+        user.setEmail("financeiro@store.com");
+        user.setRoles(Set.of(UserRole.ADMIN));
+        user = userRepository.save(user);
+
+        first = order(user, OrderStatus.DELIVERED, "Rua \"A\", 100", "120.50");
+        order(user, OrderStatus.PENDING, "Rua B", "10.00");
+        for (int i = 0; i < 5; i++) {
+            order(user, OrderStatus.DELIVERED, "Rua C\n" + i, "5.00");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Order order(User user, OrderStatus status, String address, String total) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(status);
+        order.setShippingAddress(address);
+        order.setTotalAmount(new BigDecimal(total));
+        return orderRepository.save(order);
+    }
+
+    private String export(OrderExportService.Format format) throws Exception {
+        OrderFilterDTO filterDTO = new OrderFilterDTO();
+        filterDTO.setStatus(OrderStatus.DELIVERED);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(filterDTO, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void export_AsCsv_ShouldWriteHeaderAndQuoteSpecialCharacters() throws Exception {
+        String csv = export(OrderExportService.Format.CSV);
+
+        assertTrue(csv.startsWith("id,user_id,status,"));
+        String firstRow = csv.split("\n")[1];
+        assertTrue(firstRow.startsWith(first.getId() + ","));
+        assertTrue(firstRow.contains(",DELIVERED,"));
+        assertTrue(firstRow.contains(",120.50,\"Rua \"\"A\"\", 100\","));
+        assertFalse(csv.contains("Rua B"));
+        // endereços com quebra de linha ficam entre aspas
+        assertEquals(5, csv.split("\"Rua C\n").length - 1);
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneOrderPerLineInIdOrder() throws Exception {
+        String ndjson = export(OrderExportService.Format.NDJSON);
+
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(6, lines.size());
+        assertTrue(ndjson.endsWith("\n"));
+        JsonNode firstLine = objectMapper.readTree(lines.get(0));
+        assertEquals(first.getId(), firstLine.get("id").asLong());
+        assertEquals("Rua \"A\", 100", firstLine.get("shippingAddress").asText());
+        assertEquals(0, new BigDecimal("120.50").compareTo(firstLine.get("totalAmount").decimalValue()));
+        long previousId = 0;
+        for (String line : lines) {
+            long id = objectMapper.readTree(line).get("id").asLong();
+            assertTrue(id > previousId);
+            previousId = id;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.store.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.OrderDTO;
+import com.store.entity.IdempotencyRecord;
+import com.store.exceptions.IdempotencyKeyConflictException;
+import com.store.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderIdempotencyService.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdempotencyServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Autowired
+    private OrderIdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private OrderService orderService;
+
+    @MockBean
+    private OrderAuthorizationService orderAuthorizationService;
+
+    @BeforeEach
+    void setUp() {
+        when(orderAuthorizationService.getCurrentUserId()).thenReturn(USER_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordRepository.deleteAll();
+    }
+
+    private static OrderDTO request(String address) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setShippingAddress(address);
+        return orderDTO;
+    }
+
+    private static OrderDTO created(Long id, String address) {
+        OrderDTO orderDTO = request(address);
+        orderDTO.setId(id);
+        orderDTO.setStatus("PENDING");
+        return orderDTO;
+    }
+
+    @Test
+    void createOrder_WithConcurrentDuplicates_ShouldCreateOnceAndReplayToTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrder(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return created(42L, "Rua A");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<OrderIdempotencyService.Result>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> idempotencyService.createOrder("retry-1", request("Rua A"))));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        int replayed = 0;
+        for (Future<OrderIdempotencyService.Result> result : results) {
+            OrderIdempotencyService.Result outcome = result.get(10, TimeUnit.SECONDS);
+            assertEquals(42L, outcome.order().getId());
+            replayed += outcome.replayed() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(3, replayed);
+        verify(orderService, times(1)).createOrder(any());
+        IdempotencyRecord stored = recordRepository.findById(new IdempotencyRecord.Key(USER_ID, "retry-1")).orElseThrow();
+        assertEquals(42L, stored.getOrderId());
+    }
+
+    @Test
+    void createOrder_WithKeyStoredByAnotherInstance_ShouldReplayWithoutCreating() throws Exception {
+        OrderDTO request = request("Rua B");
+        String requestHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8)));
+        recordRepository.save(new IdempotencyRecord(USER_ID, "retry-2", requestHash, 9L,
+                objectMapper.writeValueAsString(created(9L, "Rua B")), LocalDateTime.now().plusHours(1)));
+
+        OrderIdempotencyService.Result replay = idempotencyService.createOrder("retry-2", request);
+
+        assertTrue(replay.replayed());
+        assertEquals(9L, replay.order().getId());
+        assertEquals("Rua B", replay.order().getShippingAddress());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void createOrder_WithSameKeyAndDifferentRequest_ShouldThrowConflict() {
+        when(orderService.createOrder(any())).thenReturn(created(5L, "Rua C"));
+        idempotencyService.createOrder("retry-3", request("Rua C"));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.createOrder("retry-3", request("Rua D")));
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    void createOrder_WithExpiredKey_ShouldCreateAgain() {
+        recordRepository.save(new IdempotencyRecord(USER_ID, "retry-4", "old", 1L, "{}",
+                LocalDateTime.now().minusMinutes(1)));
+        when(orderService.createOrder(any())).thenReturn(created(6L, "Rua E"));
+
+        OrderIdempotencyService.Result result = idempotencyService.createOrder("retry-4", request("Rua E"));
+
+        assertFalse(result.replayed());
+        assertEquals(6L, recordRepository.findById(new IdempotencyRecord.Key(USER_ID, "retry-4"))
+                .orElseThrow().getOrderId());
+    }
+}
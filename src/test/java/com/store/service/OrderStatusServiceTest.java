@@ -0,0 +1,118 @@
+package com.store.service;
+
+import com.store.dto.BulkStatusUpdateResultDTO;
+import com.store.dto.BulkStatusUpdateResultDTO.OrderStatusResult;
+import com.store.dto.BulkStatusUpdateResultDTO.Outcome;
+import com.store.dto.ReportDTO.OrderStatusReportDTO;
+import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.repository.OrderRepository;
+import com.store.repository.OrderStatusSummaryRepository;
+import com.store.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderStatusService.class, OrderStatusSummaryService.class, ReportCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusServiceTest {
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
+    @Autowired
+    private OrderStatusSummaryService summaryService;
+
+    @Autowired
+    private OrderStatusSummaryRepository summaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private OrderAuthorizationService orderAuthorizationService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("armazem");
+        user.setPassword("secret");
+        user.setEmail("armazem@store.com");
+        user.setRoles(Set.of(UserRole.OPERATOR));
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        summaryRepository.deleteAll();
+    }
+
+    private Order order(OrderStatus status, String total) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setShippingAddress("Rua A, 100");
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal(total));
+        return orderRepository.save(order);
+    }
+
+    @Test
+    void updateOrderStatuses_ShouldApplyValidTransitionsAndReportEachId() {
+        Order pending = order(OrderStatus.PENDING, "100.00");
+        Order processing = order(OrderStatus.PROCESSING, "50.00");
+        Order shipped = order(OrderStatus.SHIPPED, "30.00");
+        Order cancelled = order(OrderStatus.CANCELLED, "20.00");
+        summaryService.rebuild();
+        LocalDateTime before = LocalDateTime.now();
+
+        BulkStatusUpdateResultDTO result = orderStatusService.updateOrderStatuses(
+                List.of(pending.getId(), processing.getId(), shipped.getId(), cancelled.getId(), -1L),
+                OrderStatus.SHIPPED);
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(Outcome.UPDATED, Outcome.UPDATED, Outcome.UNCHANGED, Outcome.INVALID_TRANSITION,
+                        Outcome.NOT_FOUND),
+                result.getResults().stream().map(OrderStatusResult::getOutcome).toList());
+        assertEquals(OrderStatus.PROCESSING, result.getResults().get(1).getPreviousStatus());
+
+        Order reloaded = orderRepository.findById(pending.getId()).orElseThrow();
+        assertEquals(OrderStatus.SHIPPED, reloaded.getStatus());
+        // o rollup diário só recalcula dias com pedidos alterados depois do watermark
+        assertFalse(reloaded.getUpdatedAt().isBefore(before));
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(cancelled.getId()).orElseThrow().getStatus());
+
+        OrderStatusReportDTO incremental = summaryService.snapshot();
+        assertEquals(3, incremental.getOrderCountByStatus().get("SHIPPED"));
+        assertEquals(0, new BigDecimal("180.00").compareTo(incremental.getTotalValueByStatus().get("SHIPPED")));
+        OrderStatusReportDTO rebuilt = summaryService.rebuild();
+        assertEquals(rebuilt.getOrderCountByStatus(), incremental.getOrderCountByStatus());
+        assertEquals(0, rebuilt.getTotalValue().compareTo(incremental.getTotalValue()));
+    }
+}
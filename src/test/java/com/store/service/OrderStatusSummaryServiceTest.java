@@ -0,0 +1,121 @@
+package com.store.service;
+
+import com.store.dto.ReportDTO.OrderStatusReportDTO;
+import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.repository.OrderRepository;
+import com.store.repository.OrderStatusSummaryRepository;
+import com.store.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OrderStatusSummaryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusSummaryServiceTest {
+
+    @Autowired
+    private OrderStatusSummaryService summaryService;
+
+    @Autowired
+    private OrderStatusSummaryRepository summaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        user = new User();
+        user.setUsername("ana");
+        user.setPassword("secret");
+        user.setEmail("ana@store.com");
+        user.setRoles(Set.of(UserRole.CLIENT));
+        user = userRepository.save(user);
+        summaryService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        summaryRepository.deleteAll();
+    }
+
+    private Long createOrder(String total) {
+        return transactionTemplate.execute(status -> {
+            Order order = new Order();
+            order.setUser(user);
+            order.setShippingAddress("Rua A, 100");
+            order.setTotalAmount(new BigDecimal(total));
+            order = orderRepository.save(order);
+            summaryService.recordCreated(order);
+            return order.getId();
+        });
+    }
+
+    @Test
+    void incrementalUpdates_ShouldMatchFullRebuild() {
+        Long first = createOrder("100.00");
+        createOrder("50.00");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Order order = orderRepository.findById(first).orElseThrow();
+            OrderStatus previousStatus = order.getStatus();
+            order.setStatus(OrderStatus.SHIPPED);
+            summaryService.recordChanged(previousStatus, order.getTotalAmount(), order);
+        });
+
+        OrderStatusReportDTO incremental = summaryService.snapshot();
+        assertEquals(2, incremental.getTotalOrders());
+        assertEquals(1, incremental.getOrderCountByStatus().get("PENDING"));
+        assertEquals(0, new BigDecimal("100.00").compareTo(incremental.getTotalValueByStatus().get("SHIPPED")));
+
+        OrderStatusReportDTO rebuilt = summaryService.rebuild();
+        assertEquals(rebuilt.getOrderCountByStatus(), incremental.getOrderCountByStatus());
+        assertEquals(0, rebuilt.getTotalValue().compareTo(incremental.getTotalValue()));
+    }
+
+    @Test
+    void rolledBackTransaction_ShouldNotChangeCounters() {
+        createOrder("100.00");
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            Order order = new Order();
+            order.setUser(user);
+            order.setShippingAddress("Rua B, 200");
+            order.setTotalAmount(new BigDecimal("70.00"));
+            summaryService.recordCreated(orderRepository.save(order));
+            throw new IllegalStateException("payment declined");
+        }));
+
+        assertEquals(1, summaryService.snapshot().getTotalOrders());
+        assertEquals(1L, summaryRepository.findById(OrderStatus.PENDING).orElseThrow().getOrderCount());
+    }
+}
@@ -0,0 +1,96 @@
+package com.store.service;
+
+import com.store.dto.ProductDTO;
+import com.store.entity.Product;
+import com.store.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "store.catalog.cache.sync-overlap=0s")
+@ActiveProfiles("test")
+@Import({ProductCatalogCacheSync.class, ProductCatalogCache.class, SimpleMeterRegistry.class})
+class ProductCatalogCacheSyncTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    @Autowired
+    private ProductCatalogCacheSync cacheSync;
+
+    private Product mouse;
+    private Product keyboard;
+
+    @BeforeEach
+    void setUp() {
+        mouse = product("Mouse");
+        keyboard = product("Teclado");
+        productRepository.flush();
+        cacheSync.poll();
+
+        // Cache preenchido por esta instância
+        catalogCache.putProducts(catalogCache.generation(), List.of(dto(mouse), dto(keyboard)));
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("50.00"));
+        product.setStockQuantity(10);
+        product.setActive(true);
+        return productRepository.save(product);
+    }
+
+    private static ProductDTO dto(Product product) {
+        return new ProductDTO(product.getId(), product.getName(), null, product.getPrice(),
+                null, null, product.getStockQuantity(), product.getActive());
+    }
+
+    @Test
+    void poll_AfterPriceChangedByAnotherInstance_ShouldEvictOnlyThatProduct() {
+        // Escrita feita "por outra instância": só a versão do catálogo muda, o cache local não é chamado
+        mouse.setPrice(new BigDecimal("45.00"));
+        productRepository.saveAndFlush(mouse);
+        cacheSync.recordChange(false);
+
+        cacheSync.poll();
+
+        assertNull(catalogCache.getProduct(mouse.getId()));
+        assertNotNull(catalogCache.getProduct(keyboard.getId()));
+    }
+
+    @Test
+    void poll_AfterProductDeletedByAnotherInstance_ShouldDropTheCache() {
+        productRepository.delete(keyboard);
+        productRepository.flush();
+        cacheSync.recordChange(true);
+
+        cacheSync.poll();
+
+        assertNull(catalogCache.getProduct(keyboard.getId()));
+    }
+
+    @Test
+    void poll_WithoutVersionChange_ShouldKeepTheCache() {
+        // Estoque não muda a versão: o cache continua valendo
+        mouse.setStockQuantity(3);
+        productRepository.saveAndFlush(mouse);
+
+        cacheSync.poll();
+
+        assertNotNull(catalogCache.getProduct(mouse.getId()));
+        assertNotNull(catalogCache.getProduct(keyboard.getId()));
+    }
+}
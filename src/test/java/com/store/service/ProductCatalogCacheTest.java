@@ -0,0 +1,73 @@
+package com.store.service;
+
+import com.store.dto.ProductDTO;
+import com.store.dto.ProductFilterDTO;
+import com.store.service.ProductCatalogCache.FilterKey;
+import com.store.service.ProductCatalogCache.FilterResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductCatalogCache(100, 100, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    private static ProductDTO product(long id, String category, String price) {
+        return new ProductDTO(id, "Product " + id, "desc", new BigDecimal(price), category, null, 10, true);
+    }
+
+    private static FilterKey categoryKey(String category) {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setCategory(category);
+        return FilterKey.of(filter, PageRequest.of(0, 10));
+    }
+
+    @Test
+    void productChanged_ShouldOnlyDropListingsTheProductBelongsTo() {
+        ProductDTO mouse = product(1, "Perifericos", "50.00");
+        cache.putProducts(cache.generation(), List.of(mouse));
+        cache.putFilterResult(cache.generation(), categoryKey("perifericos"), new FilterResult(List.of(1L), 1));
+        cache.putFilterResult(cache.generation(), categoryKey("Monitores"), new FilterResult(List.of(2L), 1));
+
+        cache.productChanged(1L, mouse, product(1, "Perifericos", "45.00"));
+
+        assertNull(cache.getProduct(1L));
+        assertNull(cache.getFilterResult(categoryKey("perifericos")));
+        assertNotNull(cache.getFilterResult(categoryKey("Monitores")));
+    }
+
+    @Test
+    void productMovedToAnotherCategory_ShouldDropTheListingItNowMatches() {
+        cache.putFilterResult(cache.generation(), categoryKey("Monitores"), new FilterResult(List.of(2L), 1));
+
+        cache.productChanged(1L, product(1, "Perifericos", "50.00"), product(1, "Monitores", "50.00"));
+
+        assertNull(cache.getFilterResult(categoryKey("Monitores")));
+    }
+
+    @Test
+    void putAfterConcurrentInvalidation_ShouldNotCacheStaleData() {
+        long readGeneration = cache.generation();
+        cache.evictProducts(List.of(1L));
+
+        cache.putProducts(readGeneration, List.of(product(1, "Perifericos", "50.00")));
+
+        assertNull(cache.getProduct(1L));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "catalog.products").tag("result", "miss")
+                .functionCounter().count());
+    }
+}
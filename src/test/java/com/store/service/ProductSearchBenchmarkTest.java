@@ -0,0 +1,106 @@
+package com.store.service;
+
+import com.store.dto.ProductFilterDTO;
+import com.store.repository.ProductQueryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares keyword search through {@code LIKE '%keyword%'} with the in-memory inverted index.
+ * Run with {@code mvn test -Pbenchmark}; the catalog size can be changed with {@code -Dbenchmark.products}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductSearchIndex.class, ProductQueryRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSearchBenchmarkTest {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+    private static final int LIKE_QUERIES = 3;
+    private static final int INDEX_QUERIES = 100;
+    private static final String[] WORDS = {
+            "teclado", "mouse", "monitor", "cadeira", "mesa", "headset", "notebook", "cabo", "suporte", "webcam",
+            "gamer", "sem", "fio", "usb", "hdmi", "ergonomica", "led", "rgb", "preto", "branco"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductQueryRepository productQueryRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Test
+    void compareLikeQueryAndInvertedIndex() {
+        insertProducts();
+
+        long buildStart = System.nanoTime();
+        searchIndex.rebuild();
+        log.info("Index build: {} ms for {} products", (System.nanoTime() - buildStart) / 1_000_000, PRODUCTS);
+
+        // Aquecimento da JIT no caminho do índice
+        for (int i = 0; i < INDEX_QUERIES; i++) {
+            searchIndex.search(WORDS[i % WORDS.length], 0, 20);
+        }
+
+        long likeStart = System.nanoTime();
+        long likeTotal = 0;
+        for (int i = 0; i < LIKE_QUERIES; i++) {
+            likeTotal = productQueryRepository.findPage(new ProductFilterDTO(), WORDS[i % WORDS.length], null,
+                    PageRequest.of(0, 20, Sort.by("id"))).getTotalElements();
+        }
+        double likeMs = (System.nanoTime() - likeStart) / 1_000_000.0 / LIKE_QUERIES;
+
+        long indexStart = System.nanoTime();
+        for (int i = 0; i < INDEX_QUERIES; i++) {
+            searchIndex.search(WORDS[i % WORDS.length], 0, 20);
+        }
+        double indexMs = (System.nanoTime() - indexStart) / 1_000_000.0 / INDEX_QUERIES;
+
+        log.info("LIKE query: {} ms/search", String.format("%.2f", likeMs));
+        log.info("Inverted index: {} ms/search ({}x)", String.format("%.2f", indexMs), String.format("%.1f", likeMs / indexMs));
+        assertEquals(likeTotal, searchIndex.search(WORDS[(LIKE_QUERIES - 1) % WORDS.length], 0, 20).totalHits());
+    }
+
+    private void insertProducts() {
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            batch.add(new Object[]{name, description, "cat" + random.nextInt(50)});
+            if (batch.size() == 10_000) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO products (name, description, category, price, stock_quantity, active, created_at)
+                VALUES (?, ?, ?, 10.00, 100, TRUE, CURRENT_TIMESTAMP)
+                """, batch);
+        batch.clear();
+    }
+}
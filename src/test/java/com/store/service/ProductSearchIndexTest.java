@@ -0,0 +1,76 @@
+package com.store.service;
+
+import com.store.dto.ProductDTO;
+import com.store.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findSearchableAfter(anyLong(), any())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, "Teclado mecânico", "Switches azuis", "Periféricos"},
+                new Object[]{2L, "Mouse sem fio", "Compatível com teclado e notebook", "Periféricos"},
+                new Object[]{3L, "Monitor 27", "Painel IPS", "Monitores"}
+        ));
+        searchIndex = new ProductSearchIndex(productRepository, 100);
+        searchIndex.rebuild();
+    }
+
+    private static ProductDTO product(long id, String name, String description, String category) {
+        return new ProductDTO(id, name, description, new BigDecimal("10.00"), category, null, 1, true);
+    }
+
+    private List<Long> search(String keyword) {
+        return searchIndex.search(keyword, 0, 10).ids();
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 2L), search("teclado"));
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesIgnoringCaseAndAccents() {
+        assertEquals(List.of(1L, 2L), search("PERIFERIC"));
+        assertEquals(List.of(1L), search("mecan"));
+    }
+
+    @Test
+    void search_ShouldRequireEveryToken() {
+        assertEquals(List.of(2L), search("teclado notebook"));
+        assertTrue(search("teclado monitor").isEmpty());
+    }
+
+    @Test
+    void indexAndRemove_ShouldUpdateResultsIncrementally() {
+        searchIndex.index(product(1L, "Teclado gamer", null, "Periféricos"));
+        searchIndex.index(product(4L, "Headset gamer", null, "Áudio"));
+        searchIndex.remove(3L);
+
+        assertEquals(List.of(1L, 4L), search("gamer"));
+        assertTrue(search("mecanico").isEmpty());
+        assertTrue(search("monitor").isEmpty());
+    }
+
+    @Test
+    void search_ShouldPageRankedHitsAndReportTheTotal() {
+        ProductSearchIndex.SearchHits secondPage = searchIndex.search("perifericos", 1, 1);
+
+        assertEquals(List.of(2L), secondPage.ids());
+        assertEquals(2, secondPage.totalHits());
+    }
+}
@@ -0,0 +1,167 @@
+package com.store.service;
+
+import com.store.entity.Product;
+import com.store.exceptions.InsufficientStockException;
+import com.store.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductStockService.class, HotStockLedger.class, ProductCatalogCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockServiceConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 50;
+    private static final int CHECKOUTS = 400;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    private Product product(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(stock);
+        product.setActive(true);
+        return productRepository.save(product);
+    }
+
+    @Test
+    void reserveStock_UnderConcurrentCheckouts_ShouldNeverOversell() throws Exception {
+        Product first = product("Flash sale A", INITIAL_STOCK);
+        Product second = product("Flash sale B", INITIAL_STOCK * 10);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < CHECKOUTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            productStockService.reserveStock(Map.of(first.getId(), 1, second.getId(), 2)));
+                    accepted.incrementAndGet();
+                } catch (InsufficientStockException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(INITIAL_STOCK, accepted.get());
+        assertEquals(CHECKOUTS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, productRepository.findById(first.getId()).orElseThrow().getStockQuantity());
+        // The rejected checkouts must not leave the second line decremented either
+        assertEquals(INITIAL_STOCK * 8, productRepository.findById(second.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void reserveStock_WithTwoInstancesLeasingTheSameHotProduct_ShouldNeverOversell() throws Exception {
+        Product hot = product("Flash sale hot", INITIAL_STOCK);
+        int leaseSize = 10;
+        // Duas "instâncias": cada uma com o seu ledger, disputando a mesma linha
+        List<HotStockLedger> ledgers = List.of(
+                new HotStockLedger(productRepository, transactionManager, catalogCache, Set.of(), leaseSize),
+                new HotStockLedger(productRepository, transactionManager, catalogCache, Set.of(), leaseSize));
+        List<ProductStockService> instances = ledgers.stream()
+                .map(ledger -> new ProductStockService(productRepository, ledger, catalogCache))
+                .toList();
+        ledgers.forEach(ledger -> ledger.enable(hot));
+        assertEquals(INITIAL_STOCK - 2 * leaseSize, productRepository.findById(hot.getId()).orElseThrow().getStockQuantity());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < CHECKOUTS; i++) {
+            ProductStockService instance = instances.get(i % instances.size());
+            HotStockLedger ledger = ledgers.get(i % ledgers.size());
+            int checkout = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                if (checkout % 25 == 0) {
+                    ledger.refill();
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            instance.reserveStock(Map.of(hot.getId(), 1)));
+                    accepted.incrementAndGet();
+                } catch (InsufficientStockException ex) {
+                    // sem estoque no lease nem na linha
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        ledgers.forEach(HotStockLedger::shutdown);
+
+        // Cada unidade vendida saiu de um lease ou da linha, nunca dos dois; o resto volta para a linha
+        int stockLeft = productRepository.findById(hot.getId()).orElseThrow().getStockQuantity();
+        assertTrue(accepted.get() <= INITIAL_STOCK);
+        assertTrue(accepted.get() >= INITIAL_STOCK - 2 * leaseSize);
+        assertEquals(INITIAL_STOCK - accepted.get(), stockLeft);
+    }
+
+    @Test
+    void reserveStock_WithInactiveProduct_ShouldRejectReservation() {
+        Product product = product("Discontinued", 5);
+        product.setActive(false);
+        productRepository.save(product);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThrows(RuntimeException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                productStockService.reserveStock(Map.of(product.getId(), 1))));
+        assertEquals(5, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+    }
+}
@@ -0,0 +1,89 @@
+package com.store.service;
+
+import com.store.service.ReportCache.ReportType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCacheTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END_OF_JANUARY = LocalDateTime.of(2025, 1, 31, 23, 59, 59);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2025, 2, 1, 0, 0);
+    private static final LocalDateTime END_OF_FEBRUARY = LocalDateTime.of(2025, 2, 28, 23, 59, 59);
+
+    private final ReportCache reportCache = new ReportCache(100, Duration.ofSeconds(30), new SimpleMeterRegistry());
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private String report(LocalDateTime start, LocalDateTime end) {
+        return reportCache.get(ReportType.SALES, start, end,
+                () -> start.getMonth() + "#" + computations.incrementAndGet());
+    }
+
+    @Test
+    void get_WithConcurrentIdenticalRequests_ShouldComputeOnce() throws Exception {
+        CountDownLatch computing = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> reportCache.get(ReportType.SALES, JANUARY, END_OF_JANUARY, () -> {
+                computing.countDown();
+                sleep();
+                return "janeiro#" + computations.incrementAndGet();
+            })));
+        }
+        assertTrue(computing.await(5, TimeUnit.SECONDS));
+
+        for (Future<String> result : results) {
+            assertEquals("janeiro#1", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void invalidate_ShouldOnlyEvictRangesCoveringTheOrderDay() {
+        String january = report(JANUARY, END_OF_JANUARY);
+        String february = report(FEBRUARY, END_OF_FEBRUARY);
+        assertEquals(january, report(JANUARY, END_OF_JANUARY));
+
+        reportCache.invalidate(LocalDateTime.of(2025, 1, 31, 18, 30));
+
+        assertNotEquals(january, report(JANUARY, END_OF_JANUARY));
+        assertEquals(february, report(FEBRUARY, END_OF_FEBRUARY));
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    void get_WhenADayIsInvalidatedDuringComputation_ShouldNotKeepTheResult() {
+        String stale = reportCache.get(ReportType.SALES, JANUARY, END_OF_JANUARY, () -> {
+            // commit de um pedido de janeiro enquanto o relatório ainda está sendo calculado
+            reportCache.invalidate(LocalDateTime.of(2025, 1, 15, 10, 0));
+            return "janeiro#" + computations.incrementAndGet();
+        });
+
+        assertEquals("janeiro#1", stale);
+        assertEquals("JANUARY#2", report(JANUARY, END_OF_JANUARY));
+        assertEquals("JANUARY#2", report(JANUARY, END_OF_JANUARY));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.store.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.dto.ReportDTO.ReportJobDTO;
+import com.store.dto.ReportDTO.SalesReportDTO;
+import com.store.entity.enums.UserRole;
+import com.store.exceptions.ReportJobNotFoundException;
+import com.store.exceptions.ReportJobNotReadyException;
+import com.store.exceptions.ReportJobRejectedException;
+import com.store.repository.ReportJobRecordRepository;
+import com.store.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportJobServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 3, 31, 23, 59, 59);
+    private static final AuthenticatedUser OPERATOR = new AuthenticatedUser(1L, "operador", Set.of(UserRole.OPERATOR));
+    private static final AuthenticatedUser OTHER_OPERATOR = new AuthenticatedUser(2L, "outro", Set.of(UserRole.OPERATOR));
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(3L, "admin", Set.of(UserRole.ADMIN));
+
+    @MockBean
+    private ReportService reportService;
+
+    @MockBean
+    private OrderAuthorizationService orderAuthorizationService;
+
+    @Autowired
+    private ReportJobRecordRepository jobRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<ReportJobService> instances = new ArrayList<>();
+    private ReportJobService reportJobService;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        reportJobService = newInstance();
+        when(orderAuthorizationService.getCurrentPrincipal()).thenReturn(OPERATOR);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        instances.forEach(ReportJobService::shutdown);
+        jobRepository.deleteAll();
+    }
+
+    // Cada chamada simula uma instância da aplicação atrás do balanceador, todas no mesmo banco
+    private ReportJobService newInstance() {
+        ReportJobService instance = new ReportJobService(reportService, orderAuthorizationService, jobRepository,
+                objectMapper, transactionManager, 1, 1, 5, Duration.ofHours(1), Duration.ofMinutes(5),
+                new SimpleMeterRegistry());
+        instances.add(instance);
+        return instance;
+    }
+
+    private void blockReports() {
+        when(reportService.generateSalesReport(any(), any(), any(DoubleConsumer.class))).thenAnswer(invocation -> {
+            DoubleConsumer progress = invocation.getArgument(2);
+            progress.accept(0.5);
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            progress.accept(1.0);
+            SalesReportDTO report = new SalesReportDTO();
+            report.setStartDate(START);
+            report.setTotalSales(new BigDecimal("150.00"));
+            report.setTotalOrders(3);
+            return report;
+        });
+    }
+
+    private ReportJobDTO awaitStatus(String id, String status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ReportJobDTO job = reportJobService.getJob(id);
+        while (!job.getStatus().equals(status) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = reportJobService.getJob(id);
+        }
+        assertEquals(status, job.getStatus());
+        return job;
+    }
+
+    @Test
+    void submitSalesReport_ShouldReportProgressAndKeepResultUntilDownloaded() throws Exception {
+        blockReports();
+
+        ReportJobDTO submitted = reportJobService.submitSalesReport(START, END);
+        assertEquals("QUEUED", submitted.getStatus());
+
+        ReportJobDTO running = awaitStatus(submitted.getId(), "RUNNING");
+        assertThrows(ReportJobNotReadyException.class, () -> reportJobService.getResult(submitted.getId()));
+        assertTrue(running.getProgress() <= 50);
+
+        release.countDown();
+        ReportJobDTO completed = awaitStatus(submitted.getId(), "COMPLETED");
+        assertEquals(100, completed.getProgress());
+        assertNotNull(completed.getCompletedAt());
+        assertNotNull(reportJobService.getResult(submitted.getId()));
+    }
+
+    @Test
+    void submitSalesReport_WhenQueueIsFull_ShouldRejectInsteadOfQueueing() throws Exception {
+        blockReports();
+
+        String running = reportJobService.submitSalesReport(START, END).getId();
+        awaitStatus(running, "RUNNING");
+        reportJobService.submitSalesReport(START, END);
+
+        assertThrows(ReportJobRejectedException.class, () -> reportJobService.submitSalesReport(START, END));
+
+        release.countDown();
+        awaitStatus(running, "COMPLETED");
+    }
+
+    @Test
+    void getJob_FromAnotherUser_ShouldBeHiddenExceptForAdmin() throws Exception {
+        blockReports();
+        release.countDown();
+        String id = reportJobService.submitSalesReport(START, END).getId();
+        awaitStatus(id, "COMPLETED");
+
+        when(orderAuthorizationService.getCurrentPrincipal()).thenReturn(OTHER_OPERATOR);
+        assertThrows(ReportJobNotFoundException.class, () -> reportJobService.getJob(id));
+        assertThrows(ReportJobNotFoundException.class, () -> reportJobService.getResult(id));
+
+        when(orderAuthorizationService.getCurrentPrincipal()).thenReturn(ADMIN);
+        assertEquals("COMPLETED", reportJobService.getJob(id).getStatus());
+    }
+
+    @Test
+    void run_WhenReportFails_ShouldMarkJobFailed() throws Exception {
+        when(reportService.generateSalesReport(any(), any(), any(DoubleConsumer.class)))
+                .thenThrow(new IllegalStateException("banco indisponível"));
+
+        String id = reportJobService.submitSalesReport(START, END).getId();
+
+        ReportJobDTO failed = awaitStatus(id, "FAILED");
+        assertEquals("banco indisponível", failed.getError());
+        verify(reportService).generateSalesReport(eq(START), eq(END), any(DoubleConsumer.class));
+    }
+
+    @Test
+    void getJob_OnAnotherInstance_ShouldSeeProgressAndDownloadTheResult() throws Exception {
+        blockReports();
+        ReportJobService otherInstance = newInstance();
+
+        String id = reportJobService.submitSalesReport(START, END).getId();
+        awaitStatus(id, "RUNNING");
+        assertEquals("RUNNING", otherInstance.getJob(id).getStatus());
+
+        release.countDown();
+        awaitStatus(id, "COMPLETED");
+        SalesReportDTO downloaded = otherInstance.getResult(id);
+        assertEquals(START, downloaded.getStartDate());
+        assertEquals(0, new BigDecimal("150.00").compareTo(downloaded.getTotalSales()));
+        assertEquals(3, downloaded.getTotalOrders());
+    }
+
+    @Test
+    void housekeeping_ShouldFailJobsWhoseInstanceStoppedHeartbeating() throws Exception {
+        blockReports();
+        String id = reportJobService.submitSalesReport(START, END).getId();
+        awaitStatus(id, "RUNNING");
+
+        // Outra instância com stale-after zero: o job não recebeu heartbeat desde então
+        ReportJobService otherInstance = new ReportJobService(reportService, orderAuthorizationService, jobRepository,
+                objectMapper, transactionManager, 1, 1, 5, Duration.ofHours(1), Duration.ZERO,
+                new SimpleMeterRegistry());
+        instances.add(otherInstance);
+        Thread.sleep(5);
+        otherInstance.housekeeping();
+
+        assertEquals("FAILED", otherInstance.getJob(id).getStatus());
+    }
+}
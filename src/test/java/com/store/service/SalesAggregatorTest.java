@@ -0,0 +1,40 @@
+package com.store.service;
+
+import com.store.entity.Order.PaymentMethod;
+import com.store.repository.projection.DailySalesAggregate;
+import com.store.service.SalesAggregator.SalesTotals;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesAggregatorTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 1);
+
+    @Test
+    void aggregate_ShouldSumByDayAndPaymentMethodInCentavos() {
+        List<DailySalesAggregate> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            PaymentMethod method = i % 7 == 0 ? null : PaymentMethod.values()[i % PaymentMethod.values().length];
+            // alguns dias caem fora do período: contam no total, mas não na série diária
+            rows.add(new DailySalesAggregate(FIRST_DAY.plusDays(i % 12 - 1), method, 2, new BigDecimal("10.05")));
+        }
+
+        SalesTotals totals = new SalesAggregator().aggregate(rows, FIRST_DAY, 10);
+
+        assertEquals(2_000, totals.orderCount());
+        assertEquals(1_005_000, totals.salesMinor());
+        assertEquals(totals.salesMinor(), Arrays.stream(totals.salesMinorByMethod()).sum());
+        assertEquals(143 * 1_005L, totals.salesMinorByMethod()[SalesAggregator.UNKNOWN_METHOD]);
+        // dia 0 recebe as linhas com i % 12 == 1: 84 linhas de 2 pedidos
+        assertEquals(168, totals.ordersByDay()[0]);
+        assertEquals(84 * 1_005L, totals.salesMinorByDay()[0]);
+        assertTrue(totals.orderCount() > Arrays.stream(totals.ordersByDay()).sum());
+    }
+}
@@ -0,0 +1,113 @@
+package com.store.service;
+
+import com.store.entity.Product;
+import com.store.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares checkout throughput on a single product between the guarded row update and the
+ * hot SKU ledger. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+// Lease do tamanho do estoque inteiro: mede o caminho em memória, sem recaídas no UPDATE da linha
+@DataJpaTest(properties = "store.stock.hot-lease-size=20000")
+@ActiveProfiles("test")
+@Import({ProductStockService.class, HotStockLedger.class, ProductCatalogCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int CHECKOUTS = 20_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private HotStockLedger hotStockLedger;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(CHECKOUTS);
+        product.setActive(true);
+        return productRepository.save(product);
+    }
+
+    @Test
+    void compareRowLockAndHotLedgerThroughput() throws Exception {
+        Product rowLocked = product("Row lock SKU");
+        Product hot = product("Hot SKU");
+        hotStockLedger.enable(hot);
+
+        // Aquecimento da JIT e do pool de conexões
+        run(rowLocked.getId(), 1_000);
+        run(hot.getId(), 1_000);
+
+        double rowLockOps = run(rowLocked.getId(), CHECKOUTS - 1_000);
+        double hotOps = run(hot.getId(), CHECKOUTS - 1_000);
+
+        log.info("Row lock path: {} checkouts/s", String.format("%.0f", rowLockOps));
+        log.info("Hot ledger path: {} checkouts/s ({}x)", String.format("%.0f", hotOps),
+                String.format("%.1f", hotOps / rowLockOps));
+
+        assertEquals(0, productRepository.findById(rowLocked.getId()).orElseThrow().getStockQuantity());
+        assertEquals(0, productRepository.findById(hot.getId()).orElseThrow().getStockQuantity());
+    }
+
+    private double run(Long productId, int checkouts) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(checkouts);
+
+        for (int i = 0; i < checkouts; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                transactionTemplate.executeWithoutResult(status ->
+                        productStockService.reserveStock(Map.of(productId, 1)));
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        return checkouts / (elapsed / 1_000_000_000.0);
+    }
+}
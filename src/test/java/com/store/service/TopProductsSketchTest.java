@@ -0,0 +1,251 @@
+package com.store.service;
+
+import com.store.dto.ReportDTO.ProductRankingDTO;
+import com.store.dto.ReportDTO.TopProductsReportDTO;
+import com.store.entity.Order;
+import com.store.entity.Order.OrderStatus;
+import com.store.entity.OrderItem;
+import com.store.entity.Product;
+import com.store.entity.User;
+import com.store.entity.enums.UserRole;
+import com.store.repository.OrderRepository;
+import com.store.repository.ProductRepository;
+import com.store.repository.UserRepository;
+import com.store.repository.projection.ProductSalesAggregate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TopProductsSketch.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TopProductsSketchTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private TopProductsSketch topProductsSketch;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User user;
+    private Product mouse;
+    private Product keyboard;
+    private Product monitor;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        user = new User();
+        user.setUsername("gerente");
+        user.setPassword("secret");
+        user.setEmail("gerente@store.com");
+        user.setRoles(Set.of(UserRole.OPERATOR));
+        user = userRepository.save(user);
+
+        mouse = product("Mouse", "50.00");
+        keyboard = product("Teclado", "120.00");
+        monitor = product("Monitor", "900.00");
+
+        order(TODAY.minusDays(10).atTime(10, 0), OrderStatus.DELIVERED, Map.of(mouse, 5, keyboard, 1));
+        order(TODAY.minusDays(3).atTime(15, 0), OrderStatus.SHIPPED, Map.of(keyboard, 2));
+        order(TODAY.minusDays(3).atTime(16, 0), OrderStatus.CANCELLED, Map.of(monitor, 10));
+        order(TODAY.atStartOfDay(), OrderStatus.PENDING, Map.of(mouse, 1, monitor, 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // o bean é compartilhado entre os testes; os sketches carregados aqui não valem para o próximo
+        topProductsSketch.invalidateDays(TODAY.minusDays(30).datesUntil(TODAY.plusDays(1)).toList());
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Product product(String name, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(100);
+        return productRepository.save(product);
+    }
+
+    private Order order(LocalDateTime createdAt, OrderStatus status, Map<Product, Integer> quantities) {
+        return transactionTemplate.execute(tx -> {
+            Order order = new Order();
+            order.setUser(user);
+            order.setShippingAddress("Rua A, 100");
+            order.setStatus(status);
+            quantities.forEach((product, quantity) -> {
+                OrderItem item = new OrderItem(product, quantity);
+                item.setOrder(order);
+                order.getItems().add(item);
+            });
+            order.recalculateTotal();
+            Order saved = orderRepository.saveAndFlush(order);
+            entityManager.createQuery("UPDATE Order o SET o.createdAt = :createdAt WHERE o.id = :id")
+                    .setParameter("createdAt", createdAt)
+                    .setParameter("id", saved.getId())
+                    .executeUpdate();
+            return saved;
+        });
+    }
+
+    private static List<String> names(List<ProductRankingDTO> ranking) {
+        return ranking.stream().map(ProductRankingDTO::getProductName).toList();
+    }
+
+    private double dayLoads() {
+        return meterRegistry.get("cache.gets").tag("cache", "reports.top-products").tag("result", "miss")
+                .functionCounter().count();
+    }
+
+    @Test
+    void topProducts_ForLongRange_ShouldMergeDailySketchesAndSkipCancelledOrders() {
+        TopProductsReportDTO report = topProductsSketch.topProducts(
+                TODAY.minusDays(30).atStartOfDay(), LocalDateTime.now().plusHours(1), 10);
+
+        assertFalse(report.isExact());
+        assertEquals(List.of("Mouse", "Teclado", "Monitor"), names(report.getByUnits()));
+        assertEquals(0, new BigDecimal("6").compareTo(report.getByUnits().get(0).getValue()));
+        assertEquals(List.of("Monitor", "Teclado", "Mouse"), names(report.getByRevenue()));
+        assertEquals(0, new BigDecimal("360.00").compareTo(report.getByRevenue().get(1).getValue()));
+        // com poucos produtos por dia os sketches guardam tudo e não há erro
+        report.getByUnits().forEach(ranking -> {
+            assertEquals(0, BigDecimal.ZERO.compareTo(ranking.getMaxOvercount()));
+            assertTrue(ranking.isGuaranteed());
+        });
+
+        TopProductsReportDTO shortRange = topProductsSketch.topProducts(
+                TODAY.minusDays(3).atStartOfDay(), LocalDateTime.now().plusHours(1), 1);
+        assertTrue(shortRange.isExact());
+        assertEquals(List.of("Teclado"), names(shortRange.getByUnits()));
+    }
+
+    @Test
+    void topProducts_StartingMidDay_ShouldCountAnOrderAtTheNextMidnightOnce() {
+        // A meia-noite separa o trecho exato do primeiro dia inteiro; o pedido entra só no sketch do dia
+        order(TODAY.minusDays(10).atStartOfDay(), OrderStatus.DELIVERED, Map.of(monitor, 4));
+
+        TopProductsReportDTO report = topProductsSketch.topProducts(
+                TODAY.minusDays(11).atTime(12, 0), LocalDateTime.now().plusHours(1), 10);
+
+        assertFalse(report.isExact());
+        ProductRankingDTO monitorUnits = report.getByUnits().stream()
+                .filter(ranking -> ranking.getProductName().equals("Monitor"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("5").compareTo(monitorUnits.getValue()));
+    }
+
+    @Test
+    void recordCreated_ShouldUpdateLoadedDayWithoutReloadingIt() {
+        LocalDateTime start = TODAY.minusDays(30).atStartOfDay();
+        topProductsSketch.topProducts(start, LocalDateTime.now().plusHours(1), 10);
+        double loads = dayLoads();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            Order order = new Order();
+            order.setUser(user);
+            order.setShippingAddress("Rua B, 200");
+            OrderItem item = new OrderItem(monitor, 7);
+            item.setOrder(order);
+            order.getItems().add(item);
+            order.recalculateTotal();
+            topProductsSketch.recordCreated(orderRepository.save(order));
+        });
+
+        TopProductsReportDTO report = topProductsSketch.topProducts(start, LocalDateTime.now().plusHours(1), 10);
+        assertEquals(loads, dayLoads());
+        assertEquals("Monitor", report.getByUnits().get(0).getProductName());
+        assertEquals(0, new BigDecimal("8").compareTo(report.getByUnits().get(0).getValue()));
+
+        // um dia invalidado volta do banco, onde o pedido cancelado não conta
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.createQuery("UPDATE Order o SET o.status = :status WHERE o.createdAt >= :today")
+                    .setParameter("status", OrderStatus.CANCELLED)
+                    .setParameter("today", TODAY.atStartOfDay())
+                    .executeUpdate();
+            topProductsSketch.invalidateDays(List.of(TODAY));
+        });
+        TopProductsReportDTO reloaded = topProductsSketch.topProducts(start, LocalDateTime.now().plusHours(1), 10);
+        assertEquals(List.of("Mouse", "Teclado"), names(reloaded.getByUnits()));
+        assertTrue(dayLoads() > loads);
+    }
+
+    @Test
+    void recordCreated_WhileTheDayIsLoading_ShouldCountTheOrderOnceTheDayIsCached() {
+        // O pedido confirma depois da consulta da carga e antes de o sketch do dia entrar no cache
+        OrderRepository racingRepository = mock(OrderRepository.class, AdditionalAnswers.delegatesTo(orderRepository));
+        TopProductsSketch sketch = new TopProductsSketch(racingRepository, productRepository, 1000, 7, 800,
+                new SimpleMeterRegistry());
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            List<ProductSalesAggregate> rows = orderRepository.aggregateProductSalesByDayBefore(
+                    invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            if (!raced.getAndSet(true)) {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    Order order = new Order();
+                    order.setUser(user);
+                    order.setShippingAddress("Rua C, 300");
+                    OrderItem item = new OrderItem(monitor, 7);
+                    item.setOrder(order);
+                    order.getItems().add(item);
+                    order.recalculateTotal();
+                    sketch.recordCreated(orderRepository.save(order));
+                });
+            }
+            return rows;
+        }).when(racingRepository).aggregateProductSalesByDayBefore(any(), any(), any());
+
+        LocalDateTime start = TODAY.minusDays(30).atStartOfDay();
+        sketch.topProducts(start, LocalDateTime.now().plusHours(1), 10);
+        TopProductsReportDTO cached = sketch.topProducts(start, LocalDateTime.now().plusHours(1), 10);
+
+        assertTrue(raced.get());
+        assertEquals("Monitor", cached.getByUnits().get(0).getProductName());
+        assertEquals(0, new BigDecimal("8").compareTo(cached.getByUnits().get(0).getValue()));
+        verify(racingRepository, times(1)).aggregateProductSalesByDayBefore(any(), any(), any());
+    }
+}
@@ -0,0 +1,124 @@
+package com.store.util;
+
+import com.store.entity.Order;
+import com.store.entity.Order.PaymentMethod;
+import com.store.entity.OrderItem;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares computing and accumulating the totals of 1M orders with {@link BigDecimal} (the code that
+ * {@link Order#calculateTotal()} replaced) and with {@link Money}, reporting time and bytes allocated
+ * per order on the measuring thread. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class MoneyAggregationBenchmarkTest {
+
+    private static final int ORDERS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareBigDecimalAndMoneyAggregation() {
+        List<Order> orders = orders();
+
+        // Aquecimento da JIT nos dois caminhos antes de medir
+        for (int i = 0; i < ROUNDS; i++) {
+            withBigDecimal(orders);
+            withMoney(orders);
+        }
+
+        Measurement bigDecimal = measure(orders, this::checksumWithBigDecimal);
+        Measurement money = measure(orders, this::checksumWithMoney);
+        assertEquals(bigDecimal.checksum(), money.checksum());
+
+        log.info("BigDecimal: {} ns/order, {} bytes/order", bigDecimal.nanosPerOrder(), bigDecimal.bytesPerOrder());
+        log.info("Money: {} ns/order, {} bytes/order ({}x less allocation)", money.nanosPerOrder(), money.bytesPerOrder(),
+                String.format("%.1f", (double) bigDecimal.bytesPerOrder() / Math.max(1, money.bytesPerOrder())));
+    }
+
+    private static List<Order> orders() {
+        BigDecimal[] prices = {new BigDecimal("19.90"), new BigDecimal("7.35"), new BigDecimal("249.00")};
+        PaymentMethod[] methods = PaymentMethod.values();
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setPaymentMethod(methods[i % methods.length]);
+            order.setShippingCost(new BigDecimal("15.00"));
+            order.setTaxAmount(new BigDecimal("3.27"));
+            order.setDiscountAmount(i % 4 == 0 ? new BigDecimal("5.00") : BigDecimal.ZERO);
+            for (int j = 0; j < 3; j++) {
+                OrderItem item = new OrderItem();
+                item.setPrice(prices[(i + j) % prices.length]);
+                item.setQuantity(1 + (i + j) % 3);
+                order.getItems().add(item);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    // Como era antes: um BigDecimal novo a cada multiplicação e soma, e Collectors.reducing por forma de pagamento
+    private static Map<PaymentMethod, BigDecimal> withBigDecimal(List<Order> orders) {
+        return orders.stream().collect(Collectors.groupingBy(Order::getPaymentMethod,
+                () -> new EnumMap<>(PaymentMethod.class),
+                Collectors.reducing(BigDecimal.ZERO, order -> order.getItems().stream()
+                        .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .add(order.getShippingCost()).add(order.getTaxAmount()).subtract(order.getDiscountAmount()),
+                        BigDecimal::add)));
+    }
+
+    private static long[] withMoney(List<Order> orders) {
+        long[] totals = new long[PaymentMethod.values().length];
+        for (Order order : orders) {
+            int method = order.getPaymentMethod().ordinal();
+            totals[method] = Math.addExact(totals[method], order.calculateTotal().minorUnits());
+        }
+        return totals;
+    }
+
+    private long checksumWithBigDecimal(List<Order> orders) {
+        return Money.of(withBigDecimal(orders).values().stream().reduce(BigDecimal.ZERO, BigDecimal::add)).minorUnits();
+    }
+
+    private long checksumWithMoney(List<Order> orders) {
+        long sum = 0;
+        for (long total : withMoney(orders)) {
+            sum += total;
+        }
+        return sum;
+    }
+
+    private Measurement measure(List<Order> orders, ToLongFunction<List<Order>> aggregation) {
+        long thread = Thread.currentThread().getId();
+        long checksum = 0;
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum = aggregation.applyAsLong(orders);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        long operations = (long) ORDERS * ROUNDS;
+        return new Measurement(checksum, elapsed / operations, allocated / operations);
+    }
+
+    private record Measurement(long checksum, long nanosPerOrder, long bytesPerOrder) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.store.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_ShouldConvertExactlyOrRoundOnlyWhenAsked() {
+        assertEquals(1050, Money.of(new BigDecimal("10.5")).minorUnits());
+        assertEquals(-1, Money.of(new BigDecimal("-0.01")).minorUnits());
+        assertEquals(new BigDecimal("10.50"), Money.of(new BigDecimal("10.50")).toBigDecimal());
+
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.005")));
+        assertEquals(1, Money.of(new BigDecimal("0.005"), RoundingMode.HALF_UP).minorUnits());
+        assertEquals(0, Money.of(new BigDecimal("0.005"), RoundingMode.HALF_EVEN).minorUnits());
+    }
+
+    @Test
+    void arithmetic_ShouldBeExactAndFailOnOverflow() {
+        Money price = Money.of(new BigDecimal("19.99"));
+
+        assertEquals(new BigDecimal("59.97"), price.times(3).toBigDecimal());
+        assertEquals(new BigDecimal("9.99"), price.minus(Money.ofMinor(1000)).toBigDecimal());
+        assertEquals(new BigDecimal("6.66"), Money.ofMinor(1999).dividedBy(3, RoundingMode.HALF_UP).toBigDecimal());
+        assertEquals(new BigDecimal("-6.67"), Money.ofMinor(-2000).dividedBy(3, RoundingMode.HALF_UP).toBigDecimal());
+
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE / 2).times(3));
+    }
+}
@@ -0,0 +1,78 @@
+package com.store.util;
+
+import com.store.util.SpaceSavingSketch.Estimate;
+import com.store.util.SpaceSavingSketch.Summary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+
+    // Distribuição de cauda longa: poucos itens concentram a maior parte do peso
+    private static long zipfItem(Random random, int items) {
+        return (long) Math.floor(Math.pow(items, random.nextDouble()));
+    }
+
+    @Test
+    void merge_OfSkewedDays_ShouldStayWithinErrorBoundAndKeepHeavyItems() {
+        Random random = new Random(42);
+        int capacity = 50;
+        Map<Long, Long> exact = new HashMap<>();
+        List<SpaceSavingSketch> days = new ArrayList<>();
+        long totalWeight = 0;
+        for (int day = 0; day < 30; day++) {
+            SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+            for (int i = 0; i < 5_000; i++) {
+                long item = zipfItem(random, 2_000);
+                long weight = 1 + random.nextInt(5);
+                sketch.add(item, weight);
+                exact.merge(item, weight, Long::sum);
+                totalWeight += weight;
+            }
+            days.add(sketch);
+        }
+
+        Summary summary = SpaceSavingSketch.merge(days, 10);
+
+        assertEquals(10, summary.top().size());
+        for (Estimate estimate : summary.top()) {
+            long actual = exact.getOrDefault(estimate.item(), 0L);
+            assertTrue(estimate.count() >= actual, "never undercounts");
+            assertTrue(estimate.lowerBound() <= actual, "overcount within its own bound");
+            assertTrue(estimate.maxOvercount() <= totalWeight / capacity);
+        }
+        List<Long> listed = summary.top().stream().map(Estimate::item).toList();
+        exact.forEach((item, count) -> {
+            if (!listed.contains(item)) {
+                assertTrue(count <= summary.unlistedBound());
+            }
+        });
+        // os itens mais pesados ficam muito acima do erro e aparecem garantidos
+        assertEquals(1L, summary.top().get(0).item());
+        assertTrue(summary.isGuaranteed(summary.top().get(0)));
+    }
+
+    @Test
+    void ofCounts_ShouldKeepLargestCountsExactlyAndBoundTheRest() {
+        SpaceSavingSketch sketch = SpaceSavingSketch.ofCounts(Map.of(1L, 40L, 2L, 30L, 3L, 20L, 4L, 10L), 2);
+
+        assertEquals(20, sketch.absentBound());
+        assertEquals(100, sketch.totalWeight());
+
+        Summary summary = SpaceSavingSketch.merge(List.of(sketch), 2);
+        assertEquals(List.of(new Estimate(1, 40, 0), new Estimate(2, 30, 0)), summary.top());
+        assertEquals(20, summary.unlistedBound());
+        assertTrue(summary.isGuaranteed(summary.top().get(1)));
+
+        // um item de fora que chega depois pode já ter até absentBound
+        sketch.add(3L, 15);
+        Summary updated = SpaceSavingSketch.merge(List.of(sketch), 3);
+        assertEquals(new Estimate(3, 45, 30), updated.top().get(0));
+    }
+}